@@ -0,0 +1,138 @@
+package com.example.demo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class Fixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long BASE_ID = 1_970_324_000_000_000L;
+    private static final long KICKOFF = 1_770_000_000_000L;
+    private static final String[] FAMILIES = {"Soccer", "Tennis", "IceHockey", "Basketball", "Volleyball"};
+
+    private Fixtures() {
+    }
+
+    public static byte[] eventsResponse(int events, int markets, int runners) {
+        List<Object> list = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            list.add(event(i, markets, runners));
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("enabled", true);
+        root.put("betline", "prematch");
+        root.put("totalCount", events);
+        root.put("vtag", "9c2cd386");
+        root.put("events", list);
+        return json(root);
+    }
+
+    public static byte[] event(int markets, int runners) {
+        return json(event(0, markets, runners));
+    }
+
+    public static byte[] sports(int sports, int regions, int leagues) {
+        List<Object> list = new ArrayList<>(sports);
+        for (int i = 0; i < sports; i++) {
+            list.add(sport(i, regions, leagues));
+        }
+        return json(list);
+    }
+
+    private static Map<String, Object> sport(int index, int regions, int leagues) {
+        List<Object> regionList = new ArrayList<>(regions);
+        for (int r = 0; r < regions; r++) {
+            List<Object> leagueList = new ArrayList<>(leagues);
+            for (int l = 0; l < leagues; l++) {
+                Map<String, Object> league = new LinkedHashMap<>();
+                league.put("id", BASE_ID + index * 1_000_000L + r * 1_000L + l);
+                league.put("name", "League " + r + "-" + l);
+                league.put("nameDefault", "League " + r + "-" + l);
+                league.put("url", "league-" + r + "-" + l);
+                league.put("weight", l);
+                league.put("prematch", l % 4 == 0 ? 0 : 12);
+                league.put("inplay", 0);
+                league.put("outright", 0);
+                league.put("top", l % 3 == 0);
+                league.put("topOrder", (r * leagues + l) % 97);
+                league.put("hasZeroMarginEvents", false);
+                leagueList.add(league);
+            }
+            Map<String, Object> region = new LinkedHashMap<>();
+            region.put("id", BASE_ID + index * 1_000L + r);
+            region.put("name", "Region " + r);
+            region.put("nameDefault", "Region " + r);
+            region.put("family", "REGION_" + r);
+            region.put("url", "region-" + r);
+            region.put("leagues", leagueList);
+            regionList.add(region);
+        }
+        Map<String, Object> sport = new LinkedHashMap<>();
+        sport.put("id", BASE_ID + index);
+        sport.put("name", FAMILIES[index % FAMILIES.length] + " " + index);
+        sport.put("weight", index);
+        sport.put("family", FAMILIES[index % FAMILIES.length]);
+        sport.put("regions", regionList);
+        return sport;
+    }
+
+    private static Map<String, Object> event(int index, int markets, int runners) {
+        List<Object> marketList = new ArrayList<>(markets);
+        for (int m = 0; m < markets; m++) {
+            List<Object> runnerList = new ArrayList<>(runners);
+            for (int r = 0; r < runners; r++) {
+                Map<String, Object> runner = new LinkedHashMap<>();
+                runner.put("id", BASE_ID + index * 10_000L + m * 100L + r);
+                runner.put("name", r == 0 ? "1" : r == 1 ? "X" : "Over " + (r + 0.5));
+                runner.put("open", r % 5 != 4);
+                runner.put("r", 0);
+                runner.put("tags", List.of("HOME", "REGULAR"));
+                runner.put("price", 1.5 + (m * runners + r) % 40 * 0.05);
+                runner.put("priceStr", "1.95");
+                runner.put("handicap", "0");
+                runnerList.add(runner);
+            }
+            Map<String, Object> market = new LinkedHashMap<>();
+            market.put("id", BASE_ID + index * 1_000L + m);
+            market.put("typeTag", "REGULAR");
+            market.put("name", "Market " + m);
+            market.put("marketTypeId", m);
+            market.put("open", m % 7 != 6);
+            market.put("hasZeroMargin", false);
+            market.put("primary", m == 0);
+            market.put("cols", runners);
+            market.put("selectionTypes", List.of("HOME", "DRAW", "AWAY"));
+            market.put("runners", runnerList);
+            marketList.add(market);
+        }
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", BASE_ID + index);
+        event.put("name", "Home Team " + index + " - Away Team " + index);
+        event.put("nameDefault", "Home Team " + index + " - Away Team " + index);
+        event.put("competitors", List.of(
+                Map.of("id", index * 2L, "name", "Home Team " + index, "homeAway", "HOME", "type", "TEAM"),
+                Map.of("id", index * 2L + 1, "name", "Away Team " + index, "homeAway", "AWAY", "type", "TEAM")));
+        event.put("kickoff", KICKOFF + index * 60_000L);
+        event.put("lastUpdated", KICKOFF - 3_600_000L);
+        event.put("betline", "prematch");
+        event.put("open", true);
+        event.put("status", "OPEN");
+        event.put("url", "home-team-away-team-" + index);
+        event.put("markets", marketList);
+        return event;
+    }
+
+    private static byte[] json(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value).getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
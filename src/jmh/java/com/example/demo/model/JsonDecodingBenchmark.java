@@ -0,0 +1,76 @@
+package com.example.demo.model;
+
+import com.example.demo.benchmark.Fixtures;
+import com.example.demo.codec.NameInterner;
+import com.example.demo.config.JacksonConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonDecodingBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int size;
+
+    @Param({"records", "streaming"})
+    private String deserializers;
+
+    private ObjectReader eventsResponseReader;
+    private ObjectReader eventReader;
+    private ObjectReader sportsReader;
+
+    private byte[] eventsResponse;
+    private byte[] event;
+    private byte[] sports;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = "streaming".equals(deserializers)
+                ? new JacksonConfig().objectMapper(new NameInterner())
+                : new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        eventsResponseReader = mapper.readerFor(EventsResponse.class);
+        eventReader = mapper.readerFor(Event.class);
+        sportsReader = mapper.readerFor(new TypeReference<List<Sport>>() { });
+
+        eventsResponse = Fixtures.eventsResponse(size, 2, 3);
+        event = Fixtures.event(size, 3);
+        sports = Fixtures.sports(5, size / 5 + 1, 20);
+    }
+
+    @Benchmark
+    public EventsResponse eventsResponse() throws IOException {
+        return eventsResponseReader.readValue(eventsResponse);
+    }
+
+    @Benchmark
+    public Event eventDetails() throws IOException {
+        return eventReader.readValue(event);
+    }
+
+    @Benchmark
+    public List<Sport> sportsTree() throws IOException {
+        return sportsReader.readValue(sports);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.output;
+
+import com.example.demo.benchmark.Fixtures;
+import com.example.demo.codec.NameInterner;
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Region;
+import com.example.demo.model.Sport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventFormattingBenchmark {
+
+    @Param({"TEXT", "JSONL", "BINARY"})
+    private String format;
+
+    @Param({"5", "50"})
+    private int markets;
+
+    private EventFormatter formatter;
+    private EventSource source;
+    private Event event;
+    private RecordBuffer buffer;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new JacksonConfig().objectMapper(new NameInterner());
+        formatter = switch (format) {
+            case "JSONL" -> new JsonLinesEventFormatter(mapper.getFactory());
+            case "BINARY" -> new BinaryEventFormatter();
+            default -> new TextEventFormatter();
+        };
+        source = new EventSource(
+                new Sport(1L, "Football", "Soccer", List.of()),
+                new Region(10L, "England", List.of()),
+                new League(100L, "Premier League", true, 1, 12));
+        event = mapper.readValue(Fixtures.event(markets, 3), Event.class);
+        buffer = new RecordBuffer(4096);
+    }
+
+    @Benchmark
+    public int writeEvent() {
+        buffer.reset();
+        formatter.writeEvent(source, event, buffer);
+        return buffer.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import com.example.demo.benchmark.Fixtures;
+import com.example.demo.codec.NameInterner;
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.model.Sport;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopLeaguesBenchmark {
+
+    @Param({"10", "100", "400"})
+    private int regions;
+
+    private Sport sport;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Sport> sports = new JacksonConfig().objectMapper(new NameInterner())
+                .readValue(Fixtures.sports(1, regions, 25), new TypeReference<List<Sport>>() { });
+        sport = sports.get(0);
+    }
+
+    @Benchmark
+    public List<LeonBetsParser.LeagueContext> collectTopLeagues() {
+        return LeonBetsParser.collectTopLeagues(sport);
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.demo;
 
-import com.example.demo.service.LeonBetsParser;
+import com.example.demo.checkpoint.CheckpointService;
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.service.OddsParser;
+import com.example.demo.service.PollingScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -26,15 +29,25 @@ public class LeonBetsParserApplication {
     }
 
     @Bean
-    public CommandLineRunner run(LeonBetsParser parser) {
+    public CommandLineRunner run(OddsParser parser, PollingScheduler scheduler,
+                                 CheckpointService checkpoints, LeonApiProperties properties) {
         return args -> {
             LOG.info("Starting Leon Bets Parser...");
-            printHeader();
+            checkpoints.restore();
+            boolean banner = properties.output().format() == LeonApiProperties.Output.Format.TEXT;
+            if (banner) {
+                printHeader();
+            }
+
+            if (properties.parser().polling().enabled()) {
+                scheduler.run().blockLast();
+                return;
+            }
 
             Instant start = Instant.now();
 
             parser.parse()
-                    .doFinally(signal -> printFooter(start))
+                    .doFinally(signal -> printFooter(start, banner))
                     .block();
         };
     }
@@ -46,11 +59,14 @@ public class LeonBetsParserApplication {
         OUT.println("=".repeat(SEPARATOR_LENGTH));
     }
 
-    private void printFooter(Instant start) {
+    private void printFooter(Instant start, boolean banner) {
         Duration elapsed = Duration.between(start, Instant.now());
+        LOG.info("Parsing finished in {} seconds", elapsed.toSeconds());
+        if (!banner) {
+            return;
+        }
         OUT.println();
         OUT.println("=".repeat(SEPARATOR_LENGTH));
-        LOG.info("Parsing finished in {} seconds", elapsed.toSeconds());
         OUT.println("Completed in " + elapsed.toSeconds() + " seconds");
     }
 }
@@ -0,0 +1,13 @@
+package com.example.demo.capture;
+
+import java.util.Map;
+
+public record RecordedResponse(
+        String method,
+        String uri,
+        int status,
+        Map<String, String> headers,
+        long recordedAt,
+        long durationNanos,
+        byte[] body
+) { }
@@ -0,0 +1,105 @@
+package com.example.demo.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+public final class ResponseArchive {
+
+    static final int MAGIC = 0x4C525350;
+    static final int VERSION = 1;
+
+    private static final int RECORD = 1;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private ResponseArchive() {
+    }
+
+    static String requestTarget(URI uri) {
+        String query = uri.getRawQuery();
+        return query == null ? uri.getRawPath() : uri.getRawPath() + "?" + query;
+    }
+
+    static byte[] header() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] encode(RecordedResponse response) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(response.body().length + 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD);
+            out.writeUTF(response.method());
+            out.writeUTF(response.uri());
+            out.writeShort(response.status());
+            out.writeByte(response.headers().size());
+            for (Map.Entry<String, String> header : response.headers().entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            out.writeLong(response.recordedAt());
+            out.writeLong(response.durationNanos());
+            out.writeInt(response.body().length);
+            out.write(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<RecordedResponse> read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(Files.newInputStream(path), STREAM_BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a response archive: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported response archive version " + version);
+            }
+
+            List<RecordedResponse> responses = new ArrayList<>();
+            try {
+                while (in.read() == RECORD) {
+                    responses.add(readRecord(in));
+                }
+            } catch (EOFException e) {
+                // archive was cut short by a crash; keep the complete records
+            }
+            return responses;
+        }
+    }
+
+    private static RecordedResponse readRecord(DataInputStream in) throws IOException {
+        String method = in.readUTF();
+        String uri = in.readUTF();
+        int status = in.readShort();
+        int headerCount = in.readUnsignedByte();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(in.readUTF(), in.readUTF());
+        }
+        long recordedAt = in.readLong();
+        long durationNanos = in.readLong();
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new RecordedResponse(method, uri, status, headers, recordedAt, durationNanos, body);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.capture;
+
+import org.springframework.http.client.reactive.ClientHttpConnector;
+
+public interface ResponseCapture extends AutoCloseable {
+
+    ClientHttpConnector connector(ClientHttpConnector network);
+
+    @Override
+    void close();
+
+    static ResponseCapture disabled() {
+        return DisabledResponseCapture.INSTANCE;
+    }
+
+    enum DisabledResponseCapture implements ResponseCapture {
+        INSTANCE;
+
+        @Override
+        public ClientHttpConnector connector(ClientHttpConnector network) {
+            return network;
+        }
+
+        @Override
+        public void close() {
+            // nothing recorded
+        }
+    }
+}
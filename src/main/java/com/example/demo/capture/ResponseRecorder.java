@@ -0,0 +1,135 @@
+package com.example.demo.capture;
+
+import com.example.demo.output.OutputSink;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ClientHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResponseRecorder implements ResponseCapture {
+
+    private static final List<String> RECORDED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.RETRY_AFTER, HttpHeaders.CONTENT_ENCODING);
+
+    private final OutputSink archive;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private volatile boolean closed;
+
+    public ResponseRecorder(OutputSink archive) {
+        this.archive = archive;
+        archive.write(ResponseArchive.header());
+    }
+
+    @Override
+    public ClientHttpConnector connector(ClientHttpConnector network) {
+        return (method, uri, requestCallback) -> {
+            long startedAt = System.nanoTime();
+            return network.connect(method, uri, requestCallback)
+                    .map(response -> {
+                        RecordingResponse recording = new RecordingResponse(response, method, uri, startedAt);
+                        if (isBodiless(response)) {
+                            recording.finish();
+                        }
+                        return recording;
+                    });
+        };
+    }
+
+    private static boolean isBodiless(ClientHttpResponse response) {
+        int status = response.getStatusCode().value();
+        return status < HttpStatus.OK.value() || status == HttpStatus.NO_CONTENT.value()
+                || status == HttpStatus.NOT_MODIFIED.value() || response.getHeaders().getContentLength() == 0;
+    }
+
+    public long recorded() {
+        return recorded.sum();
+    }
+
+    public long discarded() {
+        return discarded.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        archive.close();
+    }
+
+    private void record(RecordedResponse response) {
+        if (closed) {
+            return;
+        }
+        archive.write(ResponseArchive.encode(response));
+        recorded.increment();
+    }
+
+    private final class RecordingResponse extends ClientHttpResponseDecorator {
+
+        private final HttpMethod method;
+        private final URI uri;
+        private final long startedAt;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private RecordingResponse(ClientHttpResponse delegate, HttpMethod method, URI uri, long startedAt) {
+            super(delegate);
+            this.method = method;
+            this.uri = uri;
+            this.startedAt = startedAt;
+            for (String name : RECORDED_HEADERS) {
+                String value = delegate.getHeaders().getFirst(name);
+                if (value != null) {
+                    headers.put(name, value);
+                }
+            }
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return getDelegate().getBody()
+                    .doOnNext(this::copy)
+                    .doOnComplete(this::finish)
+                    .doOnError(e -> discard())
+                    .doOnCancel(this::discard);
+        }
+
+        private void finish() {
+            if (done.compareAndSet(false, true)) {
+                record(snapshot());
+            }
+        }
+
+        private void discard() {
+            if (done.compareAndSet(false, true)) {
+                body.reset();
+                discarded.increment();
+            }
+        }
+
+        private void copy(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, bytes.length);
+            body.writeBytes(bytes);
+        }
+
+        private RecordedResponse snapshot() {
+            return new RecordedResponse(method.name(), ResponseArchive.requestTarget(uri), getStatusCode().value(),
+                    headers, System.currentTimeMillis(), System.nanoTime() - startedAt, body.toByteArray());
+        }
+    }
+}
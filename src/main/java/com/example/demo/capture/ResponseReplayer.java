@@ -0,0 +1,126 @@
+package com.example.demo.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResponseReplayer implements ResponseCapture {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseReplayer.class);
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Map<String, Deque<RecordedResponse>> responses = new HashMap<>();
+    private final boolean preserveTiming;
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder missing = new LongAdder();
+
+    public ResponseReplayer(List<RecordedResponse> recorded, boolean preserveTiming) {
+        for (RecordedResponse response : recorded) {
+            responses.computeIfAbsent(key(response.method(), response.uri()), k -> new ArrayDeque<>())
+                    .add(response);
+        }
+        this.preserveTiming = preserveTiming;
+        LOG.info("Replaying {} recorded responses for {} requests", recorded.size(), responses.size());
+    }
+
+    @Override
+    public ClientHttpConnector connector(ClientHttpConnector network) {
+        return (method, uri, requestCallback) -> Mono.defer(() -> {
+            RecordedResponse recorded = next(key(method.name(), ResponseArchive.requestTarget(uri)));
+            if (recorded == null) {
+                missing.increment();
+                LOG.warn("No recorded response for {} {}", method, uri);
+                return Mono.just(new ReplayedResponse(HttpStatus.NOT_FOUND.value(), new HttpHeaders(), new byte[0]));
+            }
+            replayed.increment();
+            HttpHeaders headers = new HttpHeaders();
+            recorded.headers().forEach(headers::set);
+            Mono<ClientHttpResponse> response = Mono.just(
+                    new ReplayedResponse(recorded.status(), headers, recorded.body()));
+            return preserveTiming ? response.delayElement(Duration.ofNanos(recorded.durationNanos())) : response;
+        });
+    }
+
+    public long replayed() {
+        return replayed.sum();
+    }
+
+    public long missing() {
+        return missing.sum();
+    }
+
+    @Override
+    public void close() {
+        // responses are held in memory only
+    }
+
+    private RecordedResponse next(String key) {
+        Deque<RecordedResponse> queue = responses.get(key);
+        if (queue == null) {
+            return null;
+        }
+        synchronized (queue) {
+            return queue.size() > 1 ? queue.poll() : queue.peek();
+        }
+    }
+
+    private static String key(String method, String uri) {
+        return method + " " + uri;
+    }
+
+    private static final class ReplayedResponse implements ClientHttpResponse {
+
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private ReplayedResponse(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(status);
+        }
+
+        @Override
+        public MultiValueMap<String, ResponseCookie> getCookies() {
+            return new LinkedMultiValueMap<>();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            int chunks = (body.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            return Flux.range(0, chunks).map(i -> DefaultDataBufferFactory.sharedInstance.wrap(
+                    ByteBuffer.wrap(body, i * CHUNK_SIZE, Math.min(CHUNK_SIZE, body.length - i * CHUNK_SIZE))));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.checkpoint;
+
+import com.example.demo.model.Event;
+import com.example.demo.service.EventDetailsCache;
+import com.example.demo.service.IntervalRefreshSchedule;
+import com.example.demo.service.SportsTree;
+
+import java.util.List;
+import java.util.Map;
+
+public record Checkpoint(
+        long createdAt,
+        SportsTree sportsTree,
+        Map<Long, EventDetailsCache.Entry> cachedEvents,
+        List<Event> oddsSnapshot,
+        Map<Long, IntervalRefreshSchedule.LeagueState> refreshSchedule
+) { }
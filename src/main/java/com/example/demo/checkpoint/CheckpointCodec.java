@@ -0,0 +1,236 @@
+package com.example.demo.checkpoint;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Market;
+import com.example.demo.model.Region;
+import com.example.demo.model.Runner;
+import com.example.demo.model.Sport;
+import com.example.demo.service.EventDetailsCache;
+import com.example.demo.service.IntervalRefreshSchedule;
+import com.example.demo.service.SportsTree;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CheckpointCodec {
+
+    static final int MAGIC = 0x4C434B50;
+    static final int VERSION = 2;
+
+    private static final int VERSION_WITHOUT_SCHEDULE = 1;
+
+    private static final int ABSENT = -1;
+
+    private CheckpointCodec() {
+    }
+
+    public static void write(Checkpoint checkpoint, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(checkpoint.createdAt());
+
+        SportsTree tree = checkpoint.sportsTree();
+        if (tree == null) {
+            out.writeInt(ABSENT);
+        } else {
+            out.writeInt(tree.sports().size());
+            out.writeLong(tree.fetchedAt());
+            for (Sport sport : tree.sports()) {
+                writeSport(sport, out);
+            }
+        }
+
+        out.writeInt(checkpoint.cachedEvents().size());
+        for (Map.Entry<Long, EventDetailsCache.Entry> entry : checkpoint.cachedEvents().entrySet()) {
+            EventDetailsCache.Entry cached = entry.getValue();
+            out.writeLong(entry.getKey());
+            writeEvent(cached.event(), out);
+            writeNullable(cached.etag(), out);
+            writeNullable(cached.lastModified(), out);
+            out.writeLong(cached.validatedAt());
+            out.writeLong(cached.bodyBytes());
+        }
+
+        out.writeInt(checkpoint.oddsSnapshot().size());
+        for (Event event : checkpoint.oddsSnapshot()) {
+            writeEvent(event, out);
+        }
+
+        out.writeInt(checkpoint.refreshSchedule().size());
+        for (Map.Entry<Long, IntervalRefreshSchedule.LeagueState> entry : checkpoint.refreshSchedule().entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeLong(entry.getValue().refreshedAt());
+            out.writeLong(entry.getValue().nextKickoff());
+        }
+    }
+
+    public static Checkpoint read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a checkpoint file");
+        }
+        int version = in.readInt();
+        if (version != VERSION && version != VERSION_WITHOUT_SCHEDULE) {
+            throw new IOException("Unsupported checkpoint version " + version);
+        }
+        long createdAt = in.readLong();
+
+        SportsTree tree = null;
+        int sportCount = in.readInt();
+        if (sportCount != ABSENT) {
+            long fetchedAt = in.readLong();
+            List<Sport> sports = new ArrayList<>(sportCount);
+            for (int i = 0; i < sportCount; i++) {
+                sports.add(readSport(in));
+            }
+            tree = new SportsTree(List.copyOf(sports), fetchedAt);
+        }
+
+        int cachedCount = in.readInt();
+        Map<Long, EventDetailsCache.Entry> cached = new LinkedHashMap<>();
+        for (int i = 0; i < cachedCount; i++) {
+            long eventId = in.readLong();
+            Event event = readEvent(in);
+            cached.put(eventId, new EventDetailsCache.Entry(event, readNullable(in), readNullable(in),
+                    in.readLong(), in.readLong()));
+        }
+
+        int snapshotCount = in.readInt();
+        List<Event> snapshot = new ArrayList<>(snapshotCount);
+        for (int i = 0; i < snapshotCount; i++) {
+            snapshot.add(readEvent(in));
+        }
+
+        Map<Long, IntervalRefreshSchedule.LeagueState> schedule = new LinkedHashMap<>();
+        if (version != VERSION_WITHOUT_SCHEDULE) {
+            int leagueCount = in.readInt();
+            for (int i = 0; i < leagueCount; i++) {
+                schedule.put(in.readLong(), new IntervalRefreshSchedule.LeagueState(in.readLong(), in.readLong()));
+            }
+        }
+
+        return new Checkpoint(createdAt, tree, cached, snapshot, schedule);
+    }
+
+    private static void writeSport(Sport sport, DataOutputStream out) throws IOException {
+        out.writeLong(sport.id());
+        writeNullable(sport.name(), out);
+        writeNullable(sport.family(), out);
+        List<Region> regions = sport.regions();
+        out.writeInt(regions == null ? ABSENT : regions.size());
+        if (regions == null) {
+            return;
+        }
+        for (Region region : regions) {
+            out.writeLong(region.id());
+            writeNullable(region.name(), out);
+            List<League> leagues = region.leagues();
+            out.writeInt(leagues == null ? ABSENT : leagues.size());
+            if (leagues == null) {
+                continue;
+            }
+            for (League league : leagues) {
+                out.writeLong(league.id());
+                writeNullable(league.name(), out);
+                out.writeBoolean(league.top());
+                out.writeInt(league.topOrder());
+                out.writeInt(league.prematch());
+            }
+        }
+    }
+
+    private static Sport readSport(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        String name = readNullable(in);
+        String family = readNullable(in);
+        int regionCount = in.readInt();
+        if (regionCount == ABSENT) {
+            return new Sport(id, name, family, null);
+        }
+        List<Region> regions = new ArrayList<>(regionCount);
+        for (int i = 0; i < regionCount; i++) {
+            long regionId = in.readLong();
+            String regionName = readNullable(in);
+            int leagueCount = in.readInt();
+            List<League> leagues = null;
+            if (leagueCount != ABSENT) {
+                leagues = new ArrayList<>(leagueCount);
+                for (int j = 0; j < leagueCount; j++) {
+                    leagues.add(new League(in.readLong(), readNullable(in), in.readBoolean(), in.readInt(),
+                            in.readInt()));
+                }
+            }
+            regions.add(new Region(regionId, regionName, leagues));
+        }
+        return new Sport(id, name, family, regions);
+    }
+
+    private static void writeEvent(Event event, DataOutputStream out) throws IOException {
+        out.writeLong(event.id());
+        writeNullable(event.name(), out);
+        out.writeLong(event.kickoff());
+        List<Market> markets = event.markets();
+        out.writeInt(markets == null ? ABSENT : markets.size());
+        if (markets == null) {
+            return;
+        }
+        for (Market market : markets) {
+            out.writeLong(market.id());
+            writeNullable(market.name(), out);
+            out.writeBoolean(market.open());
+            List<Runner> runners = market.runners();
+            out.writeInt(runners == null ? ABSENT : runners.size());
+            if (runners == null) {
+                continue;
+            }
+            for (Runner runner : runners) {
+                out.writeLong(runner.id());
+                writeNullable(runner.name(), out);
+                out.writeDouble(runner.price());
+                out.writeBoolean(runner.open());
+            }
+        }
+    }
+
+    private static Event readEvent(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        String name = readNullable(in);
+        long kickoff = in.readLong();
+        int marketCount = in.readInt();
+        if (marketCount == ABSENT) {
+            return new Event(id, name, kickoff, null);
+        }
+        List<Market> markets = new ArrayList<>(marketCount);
+        for (int i = 0; i < marketCount; i++) {
+            long marketId = in.readLong();
+            String marketName = readNullable(in);
+            boolean open = in.readBoolean();
+            int runnerCount = in.readInt();
+            List<Runner> runners = null;
+            if (runnerCount != ABSENT) {
+                runners = new ArrayList<>(runnerCount);
+                for (int j = 0; j < runnerCount; j++) {
+                    runners.add(new Runner(in.readLong(), readNullable(in), in.readDouble(), in.readBoolean()));
+                }
+            }
+            markets.add(new Market(marketId, marketName, open, runners));
+        }
+        return new Event(id, name, kickoff, markets);
+    }
+
+    private static void writeNullable(String value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
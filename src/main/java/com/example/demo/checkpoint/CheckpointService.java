@@ -0,0 +1,119 @@
+package com.example.demo.checkpoint;
+
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.diff.OddsDiffEngine;
+import com.example.demo.service.IntervalRefreshSchedule;
+import com.example.demo.service.LeonApiService;
+import com.example.demo.service.OddsParser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+@Service
+public class CheckpointService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckpointService.class);
+
+    private final OddsParser parser;
+    private final LeonApiService apiService;
+    private final OddsDiffEngine diffEngine;
+    private final IntervalRefreshSchedule schedule;
+    private final LeonApiProperties.Checkpoint config;
+    private final Path path;
+    private volatile long lastCheckpointAt;
+
+    public CheckpointService(OddsParser parser, LeonApiService apiService, OddsDiffEngine diffEngine,
+                             IntervalRefreshSchedule schedule, LeonApiProperties properties) {
+        this.parser = parser;
+        this.apiService = apiService;
+        this.diffEngine = diffEngine;
+        this.schedule = schedule;
+        this.config = properties.checkpoint();
+        this.path = Path.of(config.path());
+    }
+
+    public boolean restore() {
+        if (!config.enabled() || !Files.exists(path)) {
+            return false;
+        }
+
+        long started = System.nanoTime();
+        Checkpoint checkpoint;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            checkpoint = CheckpointCodec.read(in);
+        } catch (IOException e) {
+            LOG.warn("Ignoring unreadable checkpoint {}: {}", path, e.getMessage());
+            return false;
+        }
+
+        long age = System.currentTimeMillis() - checkpoint.createdAt();
+        if (age > config.maxAge().toMillis()) {
+            LOG.info("Ignoring checkpoint {} created {} s ago", path, age / 1000);
+            return false;
+        }
+
+        if (checkpoint.sportsTree() != null) {
+            parser.restoreSportsTree(checkpoint.sportsTree());
+        }
+        apiService.restoreCache(checkpoint.cachedEvents());
+        diffEngine.restore(checkpoint.oddsSnapshot());
+        schedule.restore(checkpoint.refreshSchedule());
+        lastCheckpointAt = checkpoint.createdAt();
+
+        LOG.info("Restored checkpoint with {} cached events, {} snapshot events and {} scheduled leagues in {} ms",
+                checkpoint.cachedEvents().size(), checkpoint.oddsSnapshot().size(),
+                checkpoint.refreshSchedule().size(), (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    public Mono<Void> checkpointIfDue() {
+        return Mono.<Void>fromRunnable(() -> {
+            if (System.currentTimeMillis() - lastCheckpointAt >= config.interval().toMillis()) {
+                save();
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PreDestroy
+    public void close() {
+        save();
+    }
+
+    public synchronized void save() {
+        if (!config.enabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Checkpoint checkpoint = new Checkpoint(now, parser.sportsTree().orElse(null),
+                apiService.cacheEntries(), diffEngine.snapshot(), schedule.states());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            CheckpointCodec.write(checkpoint, out);
+        } catch (IOException e) {
+            LOG.warn("Failed to write checkpoint {}: {}", temp, e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastCheckpointAt = now;
+            LOG.debug("Checkpoint written to {}", path);
+        } catch (IOException e) {
+            LOG.warn("Failed to replace checkpoint {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.codec;
+
+import com.example.demo.model.Event;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class EventStreamDecoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventStreamDecoder.class);
+    private static final String EVENTS_FIELD = "events";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader eventReader;
+
+    public EventStreamDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.eventReader = objectMapper.readerFor(Event.class);
+    }
+
+    public Flux<Event> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            Tokenizer tokenizer = new Tokenizer();
+            return body.concatMapIterable(tokenizer::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())))
+                    .doFinally(signal -> tokenizer.close())
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    private final class Tokenizer {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+
+        private int depth;
+        private boolean eventsField;
+        private boolean inEventsArray;
+        private TokenBuffer eventTokens;
+        private int eventDepth;
+
+        private Tokenizer() {
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new DecodingException("Failed to create JSON parser", e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        private List<Event> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw new DecodingException("Failed to decode events stream", e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        private List<Event> endOfInput() {
+            feeder.endOfInput();
+            try {
+                List<Event> events = drain();
+                if (eventTokens != null || inEventsArray) {
+                    throw new DecodingException("Events stream ended inside the events array");
+                }
+                return events;
+            } catch (IOException e) {
+                throw new DecodingException("Failed to decode events stream", e);
+            }
+        }
+
+        private List<Event> drain() throws IOException {
+            List<Event> events = new ArrayList<>();
+            JsonToken token = parser.nextToken();
+            while (token != null && token != JsonToken.NOT_AVAILABLE) {
+                if (eventTokens != null) {
+                    bufferEventToken(token, events);
+                } else if (inEventsArray) {
+                    enterEventOrLeaveArray(token);
+                } else {
+                    navigate(token);
+                }
+                token = parser.nextToken();
+            }
+            return events;
+        }
+
+        private void bufferEventToken(JsonToken token, List<Event> events) throws IOException {
+            eventTokens.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                eventDepth++;
+            } else if (token.isStructEnd() && --eventDepth == 0) {
+                try (JsonParser eventParser = eventTokens.asParser(objectMapper)) {
+                    events.add(eventReader.readValue(eventParser));
+                }
+                eventTokens = null;
+            }
+        }
+
+        private void enterEventOrLeaveArray(JsonToken token) throws IOException {
+            if (token == JsonToken.START_OBJECT) {
+                eventTokens = new TokenBuffer(parser);
+                eventTokens.copyCurrentEvent(parser);
+                eventDepth = 1;
+            } else if (token == JsonToken.END_ARRAY) {
+                inEventsArray = false;
+                depth--;
+            }
+        }
+
+        private void navigate(JsonToken token) throws IOException {
+            if (token == JsonToken.FIELD_NAME) {
+                eventsField = depth == 1 && EVENTS_FIELD.equals(parser.currentName());
+                return;
+            }
+
+            boolean eventsValue = eventsField;
+            eventsField = false;
+            if (token.isStructStart()) {
+                depth++;
+                inEventsArray = eventsValue && token == JsonToken.START_ARRAY;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close JSON parser: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.codec;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventsResponse;
+import com.example.demo.model.League;
+import com.example.demo.model.Market;
+import com.example.demo.model.Region;
+import com.example.demo.model.Runner;
+import com.example.demo.model.Sport;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ModelJsonDecoder implements Decoder<Object> {
+
+    private static final Set<Class<?>> MODEL_TYPES = Set.of(
+            Sport.class, Region.class, League.class, EventsResponse.class, Event.class, Market.class, Runner.class);
+
+    private final ObjectMapper objectMapper;
+    private final int maxInMemorySize;
+
+    public ModelJsonDecoder(ObjectMapper objectMapper, int maxInMemorySize) {
+        this.objectMapper = objectMapper;
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        if (mimeType != null && !MediaType.APPLICATION_JSON.isCompatibleWith(mimeType)) {
+            return false;
+        }
+        Class<?> type = elementType.toClass();
+        if (List.class.isAssignableFrom(type)) {
+            type = elementType.getGeneric(0).toClass();
+        }
+        return MODEL_TYPES.contains(type);
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType, MimeType mimeType,
+                               Map<String, Object> hints) {
+        JavaType type = objectMapper.constructType(elementType.getType());
+        return DataBufferUtils.join(inputStream, maxInMemorySize)
+                .flatMapMany(buffer -> Flux.using(() -> objectMapper.createParser(buffer.asInputStream(true)),
+                        parser -> Flux.generate(sink -> readNext(parser, type, sink)),
+                        ModelJsonDecoder::close));
+    }
+
+    private void readNext(JsonParser parser, JavaType type, SynchronousSink<Object> sink) {
+        try {
+            while (true) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY && !type.isCollectionLikeType()
+                        && parser.getParsingContext().getParent().inRoot()) {
+                    continue;
+                }
+                if (token == null || token == JsonToken.END_ARRAY && parser.getParsingContext().inRoot()) {
+                    sink.complete();
+                    return;
+                }
+                Object value = objectMapper.readValue(parser, type);
+                if (value != null) {
+                    sink.next(value);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            sink.error(decodingError(e));
+        }
+    }
+
+    private static void close(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw decodingError(e);
+        }
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType, MimeType mimeType,
+                                     Map<String, Object> hints) {
+        return DataBufferUtils.join(inputStream, maxInMemorySize)
+                .flatMap(buffer -> Mono.justOrEmpty(decode(buffer, elementType, mimeType, hints)));
+    }
+
+    @Override
+    public Object decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType,
+                         Map<String, Object> hints) {
+        try (InputStream body = buffer.asInputStream(true)) {
+            return objectMapper.readValue(body, objectMapper.constructType(targetType.getType()));
+        } catch (IOException e) {
+            throw decodingError(e);
+        }
+    }
+
+    private static DecodingException decodingError(IOException e) {
+        if (e instanceof JsonProcessingException json) {
+            return new DecodingException("JSON decoding error: " + json.getOriginalMessage(), e);
+        }
+        return new DecodingException("I/O error while parsing input stream", e);
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return List.of(MediaType.APPLICATION_JSON);
+    }
+}
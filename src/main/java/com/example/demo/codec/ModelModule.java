@@ -0,0 +1,211 @@
+package com.example.demo.codec;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Market;
+import com.example.demo.model.Region;
+import com.example.demo.model.Runner;
+import com.example.demo.model.Sport;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ModelModule extends SimpleModule {
+
+    private final NameInterner names;
+
+    public ModelModule(NameInterner names) {
+        super("leon-model");
+        this.names = names;
+        register(Sport.class, this::readSport);
+        register(Region.class, this::readRegion);
+        register(League.class, this::readLeague);
+        register(Event.class, this::readEvent);
+        register(Market.class, this::readMarket);
+        register(Runner.class, this::readRunner);
+    }
+
+    private <T> void register(Class<T> type, Reader<T> reader) {
+        addDeserializer(type, new ModelDeserializer<>(type, reader));
+    }
+
+    Sport readSport(JsonParser p, DeserializationContext ctxt) throws IOException {
+        long id = 0;
+        String name = null;
+        String family = null;
+        List<Region> regions = null;
+        for (String field = firstField(p, ctxt, Sport.class); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "name" -> name = name(p);
+                case "family" -> family = name(p);
+                case "regions" -> regions = readList(p, ctxt, this::readRegion);
+                default -> { }
+            }
+            p.skipChildren();
+        }
+        return new Sport(id, name, family, regions);
+    }
+
+    Region readRegion(JsonParser p, DeserializationContext ctxt) throws IOException {
+        long id = 0;
+        String name = null;
+        List<League> leagues = null;
+        for (String field = firstField(p, ctxt, Region.class); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "name" -> name = name(p);
+                case "leagues" -> leagues = readList(p, ctxt, this::readLeague);
+                default -> { }
+            }
+            p.skipChildren();
+        }
+        return new Region(id, name, leagues);
+    }
+
+    League readLeague(JsonParser p, DeserializationContext ctxt) throws IOException {
+        long id = 0;
+        String name = null;
+        boolean top = false;
+        int topOrder = 0;
+        int prematch = 0;
+        for (String field = firstField(p, ctxt, League.class); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "name" -> name = name(p);
+                case "top" -> top = p.getValueAsBoolean();
+                case "topOrder" -> topOrder = p.getValueAsInt();
+                case "prematch" -> prematch = p.getValueAsInt();
+                default -> { }
+            }
+            p.skipChildren();
+        }
+        return new League(id, name, top, topOrder, prematch);
+    }
+
+    Event readEvent(JsonParser p, DeserializationContext ctxt) throws IOException {
+        long id = 0;
+        String name = null;
+        long kickoff = 0;
+        List<Market> markets = null;
+        for (String field = firstField(p, ctxt, Event.class); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "name" -> name = p.getValueAsString();
+                case "kickoff" -> kickoff = p.getValueAsLong();
+                case "markets" -> markets = readList(p, ctxt, this::readMarket);
+                default -> { }
+            }
+            p.skipChildren();
+        }
+        return new Event(id, name, kickoff, markets);
+    }
+
+    Market readMarket(JsonParser p, DeserializationContext ctxt) throws IOException {
+        long id = 0;
+        String name = null;
+        boolean open = false;
+        List<Runner> runners = null;
+        for (String field = firstField(p, ctxt, Market.class); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "name" -> name = name(p);
+                case "open" -> open = p.getValueAsBoolean();
+                case "runners" -> runners = readList(p, ctxt, this::readRunner);
+                default -> { }
+            }
+            p.skipChildren();
+        }
+        return new Market(id, name, open, runners);
+    }
+
+    Runner readRunner(JsonParser p, DeserializationContext ctxt) throws IOException {
+        long id = 0;
+        String name = null;
+        double price = 0;
+        boolean open = false;
+        for (String field = firstField(p, ctxt, Runner.class); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "name" -> name = name(p);
+                case "price" -> price = p.getValueAsDouble();
+                case "open" -> open = p.getValueAsBoolean();
+                default -> { }
+            }
+            p.skipChildren();
+        }
+        return new Runner(id, name, price, open);
+    }
+
+    private String name(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            return p.getValueAsString();
+        }
+        return names.intern(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+    }
+
+    private static String firstField(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        if (p.currentToken() == JsonToken.START_OBJECT) {
+            return p.nextFieldName();
+        }
+        if (p.currentToken() == JsonToken.FIELD_NAME) {
+            return p.currentName();
+        }
+        ctxt.handleUnexpectedToken(type, p);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> readList(JsonParser p, DeserializationContext ctxt, Reader<T> reader)
+            throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            return (List<T>) ctxt.handleUnexpectedToken(List.class, p);
+        }
+        List<T> items = new ArrayList<>();
+        for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            if (token == null) {
+                return (List<T>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+            items.add(token == JsonToken.VALUE_NULL ? null : reader.read(p, ctxt));
+        }
+        return items;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> extends Serializable {
+        T read(JsonParser p, DeserializationContext ctxt) throws IOException;
+    }
+
+    private static final class ModelDeserializer<T> extends StdDeserializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Reader<T> reader;
+
+        private ModelDeserializer(Class<T> type, Reader<T> reader) {
+            super(type);
+            this.reader = reader;
+        }
+
+        @Override
+        public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return reader.read(p, ctxt);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.codec;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class NameInterner implements MeterBinder {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int MAX_LENGTH = 64;
+    private static final long STRING_BYTES = 24;
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final long REFERENCE_BYTES = 4;
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public NameInterner() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public NameInterner(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        return intern(value.toCharArray(), 0, value.length());
+    }
+
+    public String intern(char[] chars, int offset, int length) {
+        if (length > MAX_LENGTH) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String cached = slots.getAcquire(slot);
+        if (cached != null && matches(cached, chars, offset, length)) {
+            hits.increment();
+            bytesSaved.add(estimatedBytes(cached));
+            return cached;
+        }
+        String value = new String(chars, offset, length);
+        slots.setRelease(slot, value);
+        misses.increment();
+        return value;
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.getPlain(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public long retainedBytes() {
+        long bytes = ARRAY_HEADER_BYTES + REFERENCE_BYTES * slots.length();
+        for (int i = 0; i < slots.length(); i++) {
+            String value = slots.getPlain(i);
+            if (value != null) {
+                bytes += estimatedBytes(value);
+            }
+        }
+        return bytes;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    private static long estimatedBytes(String value) {
+        return STRING_BYTES + ((ARRAY_HEADER_BYTES + value.length() + 7) & ~7L);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("leon.intern.size", this, NameInterner::size).register(registry);
+        Gauge.builder("leon.intern.capacity", this, NameInterner::capacity).register(registry);
+        Gauge.builder("leon.intern.retained", this, NameInterner::retainedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("leon.intern.bytes.saved", this, NameInterner::bytesSaved)
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("leon.intern.lookups", this, NameInterner::hits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("leon.intern.lookups", this, NameInterner::misses)
+                .tag("result", "miss")
+                .register(registry);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.demo.codec;
+
+import com.example.demo.metrics.ApiMetricsFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.BrotliDecoder;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class ResponseDecompressionFilter implements ExchangeFilterFunction {
+
+    public static final String WIRE_BYTES = "leon.api.response.wire.bytes";
+    public static final String DECODED_BYTES = "leon.api.response.decoded.bytes";
+    public static final String BODY_BYTES_ATTRIBUTE = ResponseDecompressionFilter.class.getName() + ".bodyBytes";
+
+    private static final NettyDataBufferFactory BUFFERS = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+
+    private final MeterRegistry registry;
+    private final boolean brotli;
+    private final int maxAllocation;
+
+    public ResponseDecompressionFilter(MeterRegistry registry, int maxAllocation) {
+        this(registry, Brotli.isAvailable(), maxAllocation);
+    }
+
+    ResponseDecompressionFilter(MeterRegistry registry, boolean brotli, int maxAllocation) {
+        this.registry = registry;
+        this.brotli = brotli;
+        this.maxAllocation = maxAllocation;
+    }
+
+    public String acceptEncoding() {
+        return brotli ? "br, gzip, deflate" : "gzip, deflate";
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = ApiMetricsFilter.endpoint(request.url().getPath());
+        ClientRequest negotiated = request.headers().containsHeader(HttpHeaders.ACCEPT_ENCODING)
+                ? request
+                : ClientRequest.from(request).header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding()).build();
+        AtomicLong bodyBytes = request.attribute(BODY_BYTES_ATTRIBUTE)
+                .filter(AtomicLong.class::isInstance)
+                .map(AtomicLong.class::cast)
+                .orElseGet(AtomicLong::new);
+        return next.exchange(negotiated).map(response -> decode(endpoint, response, bodyBytes));
+    }
+
+    private ClientResponse decode(String endpoint, ClientResponse response, AtomicLong bodyBytes) {
+        Counter wire = counter(WIRE_BYTES, endpoint);
+        Counter decoded = counter(DECODED_BYTES, endpoint);
+        Supplier<ChannelHandler> decoder = decoder(response.headers().asHttpHeaders()
+                .getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        if (decoder == null) {
+            return response.mutate()
+                    .body(body -> body.doOnNext(buffer -> {
+                        wire.increment(buffer.readableByteCount());
+                        decoded.increment(buffer.readableByteCount());
+                        bodyBytes.addAndGet(buffer.readableByteCount());
+                    }))
+                    .build();
+        }
+        return response.mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.CONTENT_ENCODING);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                })
+                .body(body -> Flux.defer(() -> {
+                    Inflater inflater = new Inflater(decoder.get(), wire, decoded, bodyBytes);
+                    return body.concatMapIterable(inflater::feed)
+                            .concatWith(Flux.defer(() -> Flux.fromIterable(inflater.finish())))
+                            .doFinally(signal -> inflater.close())
+                            .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+                }))
+                .build();
+    }
+
+    private Supplier<ChannelHandler> decoder(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "x-gzip" -> () -> ZlibCodecFactory.newZlibDecoder(ZlibWrapper.GZIP, maxAllocation);
+            case "deflate", "x-deflate" ->
+                    () -> ZlibCodecFactory.newZlibDecoder(ZlibWrapper.ZLIB_OR_NONE, maxAllocation);
+            case "br" -> brotli ? BrotliDecoder::new : null;
+            default -> null;
+        };
+    }
+
+    private Counter counter(String name, String endpoint) {
+        return Counter.builder(name)
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(registry);
+    }
+
+    private static final class Inflater {
+
+        private final EmbeddedChannel channel;
+        private final Counter wire;
+        private final Counter decoded;
+        private final AtomicLong bodyBytes;
+
+        private Inflater(ChannelHandler decoder, Counter wire, Counter decoded, AtomicLong bodyBytes) {
+            this.channel = new EmbeddedChannel(decoder);
+            this.wire = wire;
+            this.decoded = decoded;
+            this.bodyBytes = bodyBytes;
+        }
+
+        private List<DataBuffer> feed(DataBuffer buffer) {
+            wire.increment(buffer.readableByteCount());
+            ByteBuf input = NettyDataBufferFactory.toByteBuf(buffer);
+            if (!(buffer instanceof NettyDataBuffer)) {
+                DataBufferUtils.release(buffer);
+            }
+            channel.writeInbound(input);
+            return drain();
+        }
+
+        private List<DataBuffer> finish() {
+            channel.finish();
+            return drain();
+        }
+
+        private List<DataBuffer> drain() {
+            List<DataBuffer> output = new ArrayList<>();
+            for (ByteBuf chunk = channel.readInbound(); chunk != null; chunk = channel.readInbound()) {
+                decoded.increment(chunk.readableBytes());
+                bodyBytes.addAndGet(chunk.readableBytes());
+                output.add(BUFFERS.wrap(chunk));
+            }
+            return output;
+        }
+
+        private void close() {
+            channel.finishAndReleaseAll();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.config;
+
+import com.example.demo.capture.ResponseArchive;
+import com.example.demo.capture.ResponseCapture;
+import com.example.demo.capture.ResponseRecorder;
+import com.example.demo.capture.ResponseReplayer;
+import com.example.demo.output.AsyncOutputSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+@Configuration
+public class CaptureConfig {
+
+    private static final int ARCHIVE_QUEUE_CAPACITY = 1024;
+    private static final int ARCHIVE_BATCH_BYTES = 64 * 1024;
+    private static final Duration ARCHIVE_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    @Bean(destroyMethod = "close")
+    public ResponseCapture responseCapture(LeonApiProperties properties, MeterRegistry meterRegistry)
+            throws IOException {
+        LeonApiProperties.Capture capture = properties.capture();
+        Path path = Path.of(capture.path());
+
+        return switch (capture.mode()) {
+            case RECORD -> {
+                AsyncOutputSink archive = new AsyncOutputSink("capture",
+                        new GZIPOutputStream(Files.newOutputStream(path), ARCHIVE_BATCH_BYTES), true,
+                        ARCHIVE_QUEUE_CAPACITY, ARCHIVE_BATCH_BYTES, ARCHIVE_FLUSH_INTERVAL);
+                archive.bindTo(meterRegistry);
+                yield new ResponseRecorder(archive);
+            }
+            case REPLAY -> new ResponseReplayer(ResponseArchive.read(path), capture.preserveTiming());
+            default -> ResponseCapture.disabled();
+        };
+    }
+}
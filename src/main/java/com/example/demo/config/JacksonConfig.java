@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import com.example.demo.codec.ModelModule;
+import com.example.demo.codec.NameInterner;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Configuration
+@ImportRuntimeHints(ModelRuntimeHints.class)
+public class JacksonConfig {
+
+    @Bean
+    public NameInterner nameInterner(MeterRegistry meterRegistry) {
+        NameInterner nameInterner = new NameInterner();
+        nameInterner.bindTo(meterRegistry);
+        return nameInterner;
+    }
+
+    @Bean
+    public ObjectMapper objectMapper(NameInterner nameInterner) {
+        return new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModule(new ModelModule(nameInterner));
+    }
+}
@@ -1,28 +1,50 @@
 package com.example.demo.config;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 @ConfigurationProperties(prefix = "leon")
 @Validated
 public record LeonApiProperties(
         @Valid @NotNull Api api,
-        @Valid @NotNull Parser parser
+        @Valid @NotNull Parser parser,
+        @Valid @NotNull Output output,
+        @Valid @NotNull Store store,
+        @Valid @NotNull Checkpoint checkpoint,
+        @Valid @NotNull Metrics metrics,
+        @Valid @NotNull Capture capture
 ) {
+    public int maxInFlightRequests() {
+        if (api.concurrency().enabled()) {
+            return Math.max(parser.maxParallelRequests(), api.concurrency().maxLimit());
+        }
+        return parser.maxParallelRequests();
+    }
+
     public record Api(
             @NotBlank String baseUrl,
             @NotNull Duration timeout,
             @Valid @NotNull Retry retry,
             @Valid @NotNull Http http,
-            @Valid @NotNull CircuitBreaker circuitBreaker
+            @Valid @NotNull CircuitBreaker circuitBreaker,
+            @Valid @NotNull Cache cache,
+            @Valid @NotNull Concurrency concurrency,
+            @Valid @NotNull Network network,
+            @Valid @NotNull Hedge hedge
     ) {
         public record Retry(
                 @Min(1) int maxAttempts,
@@ -39,13 +61,158 @@ public record LeonApiProperties(
                 @Min(1) int failureRateThreshold,
                 @Min(1) int slidingWindowSize,
                 @NotNull Duration waitDurationInOpenState,
-                @Min(1) int permittedNumberOfCallsInHalfOpenState
+                @Min(1) int permittedNumberOfCallsInHalfOpenState,
+                @Min(0) int endpointMaxConcurrentCalls,
+                @Min(0) int leagueMaxConcurrentCalls,
+                @Min(1) int maxScopes,
+                @NotNull Duration scopeIdleTimeout
+        ) { }
+
+        public record Cache(
+                boolean enabled,
+                @Min(1) int maxEntries,
+                @NotNull Duration ttl,
+                @NotNull Duration maxStale
+        ) { }
+
+        public record Concurrency(
+                boolean enabled,
+                @Min(1) int minLimit,
+                @Min(1) int maxLimit,
+                @Min(1) int initialLimit,
+                @DecimalMin("0.1") @DecimalMax("0.95") double backoffRatio,
+                @NotNull Duration latencyThreshold
+        ) { }
+
+        public record Network(
+                @NotNull Transport transport,
+                @Min(0) int eventLoopThreads,
+                @Min(1) int maxConnections,
+                boolean http2
+        ) {
+            public enum Transport {
+                NIO,
+                EPOLL,
+                IO_URING
+            }
+        }
+
+        public record Hedge(
+                boolean enabled,
+                @DecimalMin("0.5") @DecimalMax("0.999") double percentile,
+                @NotNull Duration minDelay,
+                @DecimalMin("0.0") @DecimalMax("0.5") double budget
         ) { }
     }
 
     public record Parser(
             @Min(1) int maxParallelRequests,
             @Min(1) int matchesPerLeague,
-            @NotEmpty List<@NotBlank String> targetSports
+            @NotEmpty List<@NotBlank String> targetSports,
+            @Valid @NotNull Polling polling,
+            Map<String, @Min(1) Integer> sportWeights,
+            @Min(1) int detailConcurrency,
+            @Min(1) int reorderBacklogThreshold,
+            Engine engine
+    ) {
+        public Parser {
+            sportWeights = sportWeights == null ? Map.of() : Map.copyOf(sportWeights);
+            engine = engine == null ? Engine.REACTOR : engine;
+        }
+
+        public enum Engine {
+            REACTOR,
+            VIRTUAL_THREADS
+        }
+
+        public record Polling(
+                boolean enabled,
+                @NotNull Duration tick,
+                @NotNull Duration defaultInterval,
+                @NotNull Duration sportsTreeInterval,
+                @NotNull Duration kickoffWindow,
+                @NotNull Duration kickoffInterval,
+                Map<String, Duration> sportIntervals,
+                Map<Long, Duration> leagueIntervals,
+                @NotNull Duration distantKickoff,
+                @NotNull Duration distantInterval,
+                @Min(0) int maxLeaguesPerCycle
+        ) {
+            public Polling {
+                sportIntervals = sportIntervals == null ? Map.of() : Map.copyOf(sportIntervals);
+                leagueIntervals = leagueIntervals == null ? Map.of() : Map.copyOf(leagueIntervals);
+            }
+        }
+    }
+
+    public record Output(
+            boolean changesOnly,
+            @NotNull Format format,
+            @Valid @NotNull Sink sink
+    ) {
+        public record Sink(
+                @NotNull Target target,
+                String path,
+                boolean async,
+                @Min(1) int queueCapacity,
+                @Min(1) int batchBytes,
+                @NotNull Duration flushInterval
+        ) {
+            @AssertTrue(message = "path is required when target is file")
+            public boolean isPathSetForFile() {
+                return target != Target.FILE || path != null && !path.isBlank();
+            }
+        }
+
+        public enum Format {
+            TEXT,
+            JSONL,
+            BINARY
+        }
+
+        public enum Target {
+            STDOUT,
+            FILE
+        }
+    }
+
+    public record Store(
+            boolean enabled,
+            @NotBlank String directory,
+            @NotNull DataSize segmentSize,
+            @NotNull Duration rollInterval,
+            @NotNull Duration retention
     ) { }
+
+    public record Checkpoint(
+            boolean enabled,
+            @NotBlank String path,
+            @NotNull Duration interval,
+            @NotNull Duration maxAge
+    ) { }
+
+    public record Metrics(
+            @NotNull Export export,
+            @Min(1) @Max(65535) int port,
+            @NotBlank String path,
+            @NotNull Duration interval
+    ) {
+        public enum Export {
+            NONE,
+            PROMETHEUS,
+            FILE
+        }
+    }
+
+    public record Capture(
+            @NotNull Mode mode,
+            @NotBlank String path,
+            boolean preserveTiming
+    ) {
+        public enum Mode {
+            NONE,
+            RECORD,
+            REPLAY
+        }
+    }
 }
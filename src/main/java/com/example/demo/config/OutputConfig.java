@@ -0,0 +1,59 @@
+package com.example.demo.config;
+
+import com.example.demo.output.AsyncOutputSink;
+import com.example.demo.output.BinaryEventFormatter;
+import com.example.demo.output.EventFormatter;
+import com.example.demo.output.JsonLinesEventFormatter;
+import com.example.demo.output.OutputSink;
+import com.example.demo.output.PrintStreamSink;
+import com.example.demo.output.TextEventFormatter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Configuration
+@SuppressWarnings("PMD.SystemPrintln")
+public class OutputConfig {
+
+    @Bean(destroyMethod = "close")
+    public OutputSink outputSink(LeonApiProperties properties, MeterRegistry meterRegistry) throws IOException {
+        LeonApiProperties.Output.Sink sink = properties.output().sink();
+        boolean toFile = sink.target() == LeonApiProperties.Output.Target.FILE;
+
+        if (!sink.async()) {
+            return toFile
+                    ? new PrintStreamSink(new PrintStream(openFile(sink.path()), false), true)
+                    : new PrintStreamSink(System.out);
+        }
+
+        OutputStream target = toFile ? openFile(sink.path()) : System.out;
+        AsyncOutputSink async = new AsyncOutputSink("output", target, toFile, sink.queueCapacity(), sink.batchBytes(),
+                sink.flushInterval());
+        async.bindTo(meterRegistry);
+        return async;
+    }
+
+    @Bean
+    public EventFormatter eventFormatter(LeonApiProperties properties, ObjectMapper objectMapper) {
+        return switch (properties.output().format()) {
+            case JSONL -> new JsonLinesEventFormatter(objectMapper.getFactory());
+            case BINARY -> new BinaryEventFormatter();
+            default -> new TextEventFormatter();
+        };
+    }
+
+    private static OutputStream openFile(String path) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(path),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return Channels.newOutputStream(channel);
+    }
+}
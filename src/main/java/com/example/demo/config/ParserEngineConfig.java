@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import com.example.demo.diff.OddsDiffEngine;
+import com.example.demo.output.EventFormatter;
+import com.example.demo.output.OutputSink;
+import com.example.demo.service.BlockingLeonApiClient;
+import com.example.demo.service.IntervalRefreshSchedule;
+import com.example.demo.service.LeonBetsParser;
+import com.example.demo.service.OddsParser;
+import com.example.demo.service.VirtualThreadParser;
+import com.example.demo.store.TickStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class ParserEngineConfig {
+
+    @Bean
+    @Primary
+    public OddsParser oddsParser(LeonApiProperties properties, LeonBetsParser reactorParser,
+                                 ObjectMapper objectMapper, OddsDiffEngine diffEngine, OutputSink outputSink,
+                                 EventFormatter formatter, TickStore tickStore, MeterRegistry meterRegistry) {
+        return switch (properties.parser().engine()) {
+            case VIRTUAL_THREADS -> new VirtualThreadParser(
+                    new BlockingLeonApiClient(properties, objectMapper, meterRegistry), properties, diffEngine,
+                    outputSink, formatter, tickStore, meterRegistry);
+            case REACTOR -> reactorParser;
+        };
+    }
+
+    @Bean
+    public IntervalRefreshSchedule refreshSchedule(LeonApiProperties properties) {
+        return new IntervalRefreshSchedule(properties.parser().polling());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.config;
+
+import com.example.demo.store.SegmentedTickStore;
+import com.example.demo.store.TickStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class TickStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public TickStore tickStore(LeonApiProperties properties) throws IOException {
+        LeonApiProperties.Store store = properties.store();
+        if (!store.enabled()) {
+            return TickStore.disabled();
+        }
+        return new SegmentedTickStore(Path.of(store.directory()), Math.toIntExact(store.segmentSize().toBytes()),
+                store.rollInterval(), store.retention());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.config;
+
+import com.example.demo.config.LeonApiProperties.Api.Network.Transport;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.IoHandlerFactory;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.ReflectiveChannelFactory;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollIoHandler;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.uring.IoUring;
+import io.netty.channel.uring.IoUringDatagramChannel;
+import io.netty.channel.uring.IoUringIoHandler;
+import io.netty.channel.uring.IoUringServerSocketChannel;
+import io.netty.channel.uring.IoUringSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+public final class TransportLoopResources implements LoopResources {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransportLoopResources.class);
+
+    private final Backend backend;
+    private final EventLoopGroup eventLoopGroup;
+
+    private TransportLoopResources(Backend backend, int threads) {
+        this.backend = backend;
+        this.eventLoopGroup = new MultiThreadIoEventLoopGroup(threads, new DefaultThreadFactory("parser", true),
+                backend.ioHandlerFactory.get());
+    }
+
+    public static TransportLoopResources create(Transport requested, int threads) {
+        Backend backend = resolve(Backend.valueOf(requested.name()));
+        int eventLoopThreads = threads > 0 ? threads : DEFAULT_IO_WORKER_COUNT;
+        LOG.info("Using {} transport with {} event loop threads", backend, eventLoopThreads);
+        return new TransportLoopResources(backend, eventLoopThreads);
+    }
+
+    private static Backend resolve(Backend preferred) {
+        for (Backend candidate = preferred; candidate != Backend.NIO; candidate = candidate.fallback()) {
+            if (candidate.available.getAsBoolean()) {
+                return candidate;
+            }
+            LOG.warn("{} transport is not available on this platform, falling back", candidate);
+        }
+        return Backend.NIO;
+    }
+
+    public Transport transport() {
+        return Transport.valueOf(backend.name());
+    }
+
+    @Override
+    public EventLoopGroup onClient(boolean useNative) {
+        return eventLoopGroup;
+    }
+
+    @Override
+    public EventLoopGroup onServer(boolean useNative) {
+        return eventLoopGroup;
+    }
+
+    @Override
+    public EventLoopGroup onServerSelect(boolean useNative) {
+        return eventLoopGroup;
+    }
+
+    @Override
+    public <C extends Channel> C onChannel(Class<C> channelType, EventLoopGroup group) {
+        return new ReflectiveChannelFactory<>(onChannelClass(channelType, group)).newChannel();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends Channel> Class<? extends C> onChannelClass(Class<C> channelType, EventLoopGroup group) {
+        if (channelType.equals(SocketChannel.class)) {
+            return (Class<? extends C>) backend.socketChannel;
+        }
+        if (channelType.equals(DatagramChannel.class)) {
+            return (Class<? extends C>) backend.datagramChannel;
+        }
+        if (channelType.equals(ServerSocketChannel.class)) {
+            return (Class<? extends C>) backend.serverSocketChannel;
+        }
+        throw new IllegalArgumentException("Unsupported channel type: " + channelType.getSimpleName());
+    }
+
+    @Override
+    public boolean daemon() {
+        return true;
+    }
+
+    @Override
+    public Mono<Void> disposeLater(Duration quietPeriod, Duration timeout) {
+        return Mono.create(sink -> eventLoopGroup.shutdownGracefully(
+                        quietPeriod.toMillis(), timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .addListener(future -> sink.success()));
+    }
+
+    private enum Backend {
+        NIO(() -> true, NioIoHandler::newFactory,
+                NioSocketChannel.class, NioDatagramChannel.class, NioServerSocketChannel.class),
+        EPOLL(Epoll::isAvailable, EpollIoHandler::newFactory,
+                EpollSocketChannel.class, EpollDatagramChannel.class, EpollServerSocketChannel.class),
+        IO_URING(IoUring::isAvailable, IoUringIoHandler::newFactory,
+                IoUringSocketChannel.class, IoUringDatagramChannel.class, IoUringServerSocketChannel.class);
+
+        private final BooleanSupplier available;
+        private final Supplier<IoHandlerFactory> ioHandlerFactory;
+        private final Class<? extends SocketChannel> socketChannel;
+        private final Class<? extends DatagramChannel> datagramChannel;
+        private final Class<? extends ServerSocketChannel> serverSocketChannel;
+
+        Backend(BooleanSupplier available, Supplier<IoHandlerFactory> ioHandlerFactory,
+                  Class<? extends SocketChannel> socketChannel, Class<? extends DatagramChannel> datagramChannel,
+                  Class<? extends ServerSocketChannel> serverSocketChannel) {
+            this.available = available;
+            this.ioHandlerFactory = ioHandlerFactory;
+            this.socketChannel = socketChannel;
+            this.datagramChannel = datagramChannel;
+            this.serverSocketChannel = serverSocketChannel;
+        }
+
+        private Backend fallback() {
+            return this == IO_URING ? EPOLL : NIO;
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package com.example.demo.config;
 
+import com.example.demo.capture.ResponseCapture;
+import com.example.demo.codec.ModelJsonDecoder;
+import com.example.demo.codec.ResponseDecompressionFilter;
+import com.example.demo.metrics.ApiMetricsFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.util.concurrent.DefaultThreadFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
-import reactor.netty.resources.LoopResources;
 
 @Configuration
 @EnableConfigurationProperties(LeonApiProperties.class)
@@ -20,36 +24,30 @@ public class WebClientConfig {
     private static final int BYTES_PER_MB = 1024 * 1024;
 
     @Bean
-    public WebClient webClient(LeonApiProperties properties) {
+    public WebClient webClient(LeonApiProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               ResponseCapture responseCapture) {
         LeonApiProperties.Api apiConfig = properties.api();
 
-        int threads = properties.parser().maxParallelRequests();
-        NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(
-                threads, new DefaultThreadFactory("parser", true));
+        LeonApiProperties.Api.Network network = apiConfig.network();
+        TransportLoopResources loopResources = TransportLoopResources.create(
+                network.transport(), network.eventLoopThreads());
 
-        LoopResources loopResources = new LoopResources() {
-            @Override
-            public EventLoopGroup onClient(boolean useNative) {
-                return eventLoopGroup;
-            }
+        ConnectionProvider.Builder pool = ConnectionProvider.builder("parser")
+                .maxConnections(network.maxConnections())
+                .pendingAcquireMaxCount(properties.maxInFlightRequests())
+                .metrics(true);
+        if (network.http2()) {
+            pool.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(network.maxConnections())
+                    .minConnections(1)
+                    .build());
+        }
 
-            @Override
-            public EventLoopGroup onServer(boolean useNative) {
-                return eventLoopGroup;
-            }
-
-            @Override
-            public EventLoopGroup onServerSelect(boolean useNative) {
-                return eventLoopGroup;
-            }
-        };
-
-        ConnectionProvider connectionProvider = ConnectionProvider.builder("parser")
-                .maxConnections(threads)
-                .build();
-
-        HttpClient httpClient = HttpClient.create(connectionProvider)
+        HttpClient httpClient = HttpClient.create(pool.build())
                 .runOn(loopResources, false)
+                .protocol(network.http2()
+                        ? new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[] {HttpProtocol.HTTP11})
                 .responseTimeout(apiConfig.timeout())
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
                         (int) apiConfig.timeout().toMillis());
@@ -58,10 +56,15 @@ public class WebClientConfig {
 
         return WebClient.builder()
                 .baseUrl(apiConfig.baseUrl())
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .clientConnector(responseCapture.connector(new ReactorClientHttpConnector(httpClient)))
                 .defaultHeader("Accept", "application/json")
                 .defaultHeader("User-Agent", apiConfig.http().userAgent())
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().maxInMemorySize(maxInMemorySize);
+                    configurer.customCodecs().register(new ModelJsonDecoder(objectMapper, maxInMemorySize));
+                })
+                .filter(new ApiMetricsFilter(meterRegistry))
+                .filter(new ResponseDecompressionFilter(meterRegistry, maxInMemorySize))
                 .build();
     }
 }
@@ -0,0 +1,9 @@
+package com.example.demo.diff;
+
+public enum ChangeType {
+    ADDED,
+    REMOVED,
+    SUSPENDED,
+    REOPENED,
+    PRICE_CHANGED
+}
@@ -0,0 +1,182 @@
+package com.example.demo.diff;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@Component
+public class OddsDiffEngine {
+
+    private final LongObjectMap<EventState> events = new LongObjectHashMap<>();
+
+    public synchronized List<RunnerChange> diff(Event event) {
+        EventState state = events.get(event.id());
+        if (state == null) {
+            state = new EventState(event.kickoff());
+            events.put(event.id(), state);
+        }
+        state.kickoff = event.kickoff();
+        int generation = ++state.generation;
+
+        List<RunnerChange> changes = new ArrayList<>();
+        if (event.markets() != null) {
+            for (Market market : event.markets()) {
+                if (market.runners() == null) {
+                    continue;
+                }
+                for (Runner runner : market.runners()) {
+                    diffRunner(event.id(), market, runner, state, generation, changes);
+                }
+            }
+        }
+        collectRemoved(event.id(), state, generation, changes);
+        return changes;
+    }
+
+    private void diffRunner(long eventId, Market market, Runner runner, EventState state, int generation,
+                            List<RunnerChange> changes) {
+        boolean open = market.open() && runner.open();
+        RunnerState previous = state.runners.get(runner.id());
+
+        if (previous == null) {
+            state.runners.put(runner.id(), new RunnerState(market, runner, open, generation));
+            if (open) {
+                changes.add(change(eventId, market.id(), market.name(), runner.id(), runner.name(),
+                        ChangeType.ADDED, Double.NaN, runner.price()));
+            }
+            return;
+        }
+
+        previous.generation = generation;
+        ChangeType type = null;
+        if (open && !previous.open) {
+            type = ChangeType.REOPENED;
+        } else if (!open && previous.open) {
+            type = ChangeType.SUSPENDED;
+        } else if (open && Double.compare(previous.price, runner.price()) != 0) {
+            type = ChangeType.PRICE_CHANGED;
+        }
+
+        if (type != null) {
+            changes.add(change(eventId, market.id(), market.name(), runner.id(), runner.name(),
+                    type, previous.price, runner.price()));
+        }
+        previous.update(market, runner, open);
+    }
+
+    private void collectRemoved(long eventId, EventState state, int generation, List<RunnerChange> changes) {
+        Iterator<LongObjectMap.PrimitiveEntry<RunnerState>> it = state.runners.entries().iterator();
+        while (it.hasNext()) {
+            LongObjectMap.PrimitiveEntry<RunnerState> entry = it.next();
+            RunnerState runner = entry.value();
+            if (runner.generation == generation) {
+                continue;
+            }
+            if (runner.open) {
+                changes.add(change(eventId, runner.marketId, runner.marketName, entry.key(), runner.name,
+                        ChangeType.REMOVED, runner.price, Double.NaN));
+            }
+            it.remove();
+        }
+    }
+
+    private static RunnerChange change(long eventId, long marketId, String marketName, long runnerId,
+                                       String runnerName, ChangeType type, double oldPrice, double newPrice) {
+        return new RunnerChange(eventId, marketId, marketName, runnerId, runnerName, type, oldPrice, newPrice);
+    }
+
+    public synchronized int evictKickedOffBefore(long epochMillis) {
+        int evicted = 0;
+        Iterator<LongObjectMap.PrimitiveEntry<EventState>> it = events.entries().iterator();
+        while (it.hasNext()) {
+            if (it.next().value().kickoff < epochMillis) {
+                it.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public synchronized List<Event> snapshot() {
+        List<Event> snapshot = new ArrayList<>(events.size());
+        for (LongObjectMap.PrimitiveEntry<EventState> entry : events.entries()) {
+            snapshot.add(toEvent(entry.key(), entry.value()));
+        }
+        return snapshot;
+    }
+
+    public synchronized void restore(List<Event> snapshot) {
+        for (Event event : snapshot) {
+            if (!events.containsKey(event.id())) {
+                diff(event);
+            }
+        }
+    }
+
+    private static Event toEvent(long eventId, EventState state) {
+        LongObjectMap<Market> markets = new LongObjectHashMap<>();
+        for (LongObjectMap.PrimitiveEntry<RunnerState> entry : state.runners.entries()) {
+            RunnerState runner = entry.value();
+            Market market = markets.get(runner.marketId);
+            if (market == null) {
+                market = new Market(runner.marketId, runner.marketName, true, new ArrayList<>());
+                markets.put(runner.marketId, market);
+            }
+            market.runners().add(new Runner(entry.key(), runner.name, runner.price, runner.open));
+        }
+        return new Event(eventId, null, state.kickoff, new ArrayList<>(markets.values()));
+    }
+
+    public synchronized int eventCount() {
+        return events.size();
+    }
+
+    public synchronized int runnerCount() {
+        int count = 0;
+        for (EventState state : events.values()) {
+            count += state.runners.size();
+        }
+        return count;
+    }
+
+    private static final class EventState {
+
+        private final LongObjectMap<RunnerState> runners = new LongObjectHashMap<>();
+        private long kickoff;
+        private int generation;
+
+        private EventState(long kickoff) {
+            this.kickoff = kickoff;
+        }
+    }
+
+    private static final class RunnerState {
+
+        private long marketId;
+        private String marketName;
+        private String name;
+        private double price;
+        private boolean open;
+        private int generation;
+
+        private RunnerState(Market market, Runner runner, boolean open, int generation) {
+            update(market, runner, open);
+            this.generation = generation;
+        }
+
+        private void update(Market market, Runner runner, boolean open) {
+            this.marketId = market.id();
+            this.marketName = market.name();
+            this.name = runner.name();
+            this.price = runner.price();
+            this.open = open;
+        }
+    }
+}
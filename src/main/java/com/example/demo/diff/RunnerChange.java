@@ -0,0 +1,12 @@
+package com.example.demo.diff;
+
+public record RunnerChange(
+        long eventId,
+        long marketId,
+        String marketName,
+        long runnerId,
+        String runnerName,
+        ChangeType type,
+        double oldPrice,
+        double newPrice
+) { }
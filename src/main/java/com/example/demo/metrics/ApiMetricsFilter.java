@@ -0,0 +1,147 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ApiMetricsFilter implements ExchangeFilterFunction {
+
+    public static final String REQUESTS = "leon.api.requests";
+    public static final String RESPONSE_BYTES = "leon.api.response.bytes";
+    public static final String FIRST_REQUEST = "leon.startup.first.request";
+
+    private static final String CANCELLED = "cancelled";
+    private static final int NOT_MODIFIED = 304;
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ApiMetricsFilter.class);
+
+    private final MeterRegistry registry;
+    private final AtomicBoolean firstRequest = new AtomicBoolean(true);
+
+    public ApiMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = endpoint(request.url().getPath());
+        return Mono.defer(() -> {
+            long start = requestStarted();
+            return next.exchange(request)
+                    .map(response -> response.mutate()
+                            .body(body -> {
+                                AtomicLong bytes = new AtomicLong();
+                                return body
+                                        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                                        .doFinally(signal -> {
+                                            String outcome = switch (signal) {
+                                                case ON_ERROR -> "io_error";
+                                                case CANCEL -> CANCELLED;
+                                                default -> outcome(response.statusCode());
+                                            };
+                                            record(endpoint, outcome, start);
+                                            responseBytes(endpoint).record(bytes.get());
+                                        });
+                            })
+                            .build())
+                    .doOnError(e -> record(endpoint, outcome(e), start))
+                    .doOnCancel(() -> record(endpoint, CANCELLED, start));
+        });
+    }
+
+    public long requestStarted() {
+        if (firstRequest.compareAndSet(true, false)) {
+            recordFirstRequest();
+        }
+        return System.nanoTime();
+    }
+
+    public void recordResponse(String endpoint, int status, long bytes, long start) {
+        record(endpoint, outcome(HttpStatusCode.valueOf(status)), start);
+        responseBytes(endpoint).record(bytes);
+    }
+
+    public void recordError(String endpoint, Throwable error, long start) {
+        record(endpoint, outcome(error), start);
+    }
+
+    public static String endpoint(String path) {
+        if (path.endsWith("/sports")) {
+            return "sports";
+        }
+        if (path.endsWith("/events/all")) {
+            return "events-all";
+        }
+        if (path.endsWith("/event/all")) {
+            return "event-all";
+        }
+        return "other";
+    }
+
+    private void recordFirstRequest() {
+        long sinceStart = ProcessHandle.current().info().startInstant()
+                .map(started -> Duration.between(started, Instant.now()).toMillis())
+                .orElseGet(() -> ManagementFactory.getRuntimeMXBean().getUptime());
+        registry.timer(FIRST_REQUEST).record(sinceStart, TimeUnit.MILLISECONDS);
+        LOG.info("First API request sent {} ms after process start", sinceStart);
+    }
+
+    private void record(String endpoint, String outcome, long start) {
+        Timer.builder(REQUESTS)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private DistributionSummary responseBytes(String endpoint) {
+        return DistributionSummary.builder(RESPONSE_BYTES)
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        int code = status.value();
+        if (status.is2xxSuccessful()) {
+            return "success";
+        }
+        if (code == NOT_MODIFIED) {
+            return "not_modified";
+        }
+        if (code == TOO_MANY_REQUESTS) {
+            return "rate_limited";
+        }
+        return status.is5xxServerError() ? "server_error" : "client_error";
+    }
+
+    private static String outcome(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof io.netty.handler.timeout.TimeoutException
+                    || cause instanceof HttpTimeoutException) {
+                return "timeout";
+            }
+        }
+        return "io_error";
+    }
+}
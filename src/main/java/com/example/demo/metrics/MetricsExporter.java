@@ -0,0 +1,94 @@
+package com.example.demo.metrics;
+
+import com.example.demo.config.LeonApiProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class MetricsExporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsExporter.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusMeterRegistry registry;
+    private final LeonApiProperties.Metrics config;
+    private HttpServer server;
+    private ScheduledExecutorService fileWriter;
+
+    public MetricsExporter(PrometheusMeterRegistry registry, LeonApiProperties properties) {
+        this.registry = registry;
+        this.config = properties.metrics();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        switch (config.export()) {
+            case PROMETHEUS -> startServer();
+            case FILE -> startFileWriter();
+            default -> LOG.debug("Metrics export disabled");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (fileWriter != null) {
+            fileWriter.shutdownNow();
+            writeFile();
+        }
+    }
+
+    private void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(config.port()), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        LOG.info("Prometheus metrics available on http://localhost:{}/metrics", config.port());
+    }
+
+    private void startFileWriter() {
+        fileWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.interval().toMillis();
+        fileWriter.scheduleAtFixedRate(this::writeFile, interval, interval, TimeUnit.MILLISECONDS);
+        LOG.info("Writing metrics to {} every {}", config.path(), config.interval());
+    }
+
+    private void writeFile() {
+        Path path = Path.of(config.path());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, registry.scrape());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Failed to write metrics to {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.demo.output;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AsyncOutputSink implements OutputSink, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncOutputSink.class);
+
+    private static final byte[] FLUSH = new byte[0];
+    private static final byte[] CLOSE = new byte[0];
+
+    private final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+    private final int queueCapacity;
+    private final OutputStream target;
+    private final boolean closeTarget;
+    private final byte[] batch;
+    private final long flushIntervalNanos;
+    private final Thread writer;
+
+    private final Object progress = new Object();
+    private final Object space = new Object();
+    private volatile int waiting;
+    private final AtomicLong enqueued = new AtomicLong();
+    private long persisted;
+    private int batchLength;
+    private long batchStartedAt;
+    private long unpersisted;
+    private volatile boolean closed;
+
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder batchesWritten = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    private final String name;
+
+    public AsyncOutputSink(OutputStream target, boolean closeTarget, int queueCapacity, int batchBytes,
+                           Duration flushInterval) {
+        this("output", target, closeTarget, queueCapacity, batchBytes, flushInterval);
+    }
+
+    public AsyncOutputSink(String name, OutputStream target, boolean closeTarget, int queueCapacity, int batchBytes,
+                           Duration flushInterval) {
+        this.name = name;
+        this.target = target;
+        this.closeTarget = closeTarget;
+        this.queueCapacity = queueCapacity;
+        this.batch = new byte[batchBytes];
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.writer = new Thread(this::run, name + "-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void write(byte[] record) {
+        if (closed || !writer.isAlive()) {
+            throw new IllegalStateException("Output sink is closed");
+        }
+        if (isFull() && !Schedulers.isInNonBlockingThread()) {
+            awaitSpace();
+        }
+        queue.add(record);
+        enqueued.incrementAndGet();
+    }
+
+    @Override
+    public boolean isFull() {
+        return queue.size() >= queueCapacity;
+    }
+
+    @Override
+    public void flush() {
+        long target = enqueued.get();
+        queue.add(FLUSH);
+        awaitPersisted(target);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitSpace() {
+        stalls.increment();
+        synchronized (space) {
+            waiting++;
+            try {
+                while (isFull() && writer.isAlive()) {
+                    space.wait(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiting--;
+            }
+        }
+    }
+
+    private void signalSpace() {
+        if (waiting > 0 && !isFull()) {
+            synchronized (space) {
+                space.notifyAll();
+            }
+        }
+    }
+
+    private void awaitPersisted(long target) {
+        synchronized (progress) {
+            while (persisted < target && writer.isAlive()) {
+                try {
+                    progress.wait(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                byte[] record = batchLength == 0
+                        ? queue.take()
+                        : queue.poll(batchStartedAt + flushIntervalNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                signalSpace();
+
+                if (record == null || record == FLUSH) {
+                    writeBatch();
+                } else if (record == CLOSE) {
+                    writeBatch();
+                    return;
+                } else {
+                    append(record);
+                    if (batchLength >= batch.length) {
+                        writeBatch();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOG.error("Output writer failed", e);
+        } finally {
+            closeTarget();
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+            synchronized (space) {
+                space.notifyAll();
+            }
+        }
+    }
+
+    private void append(byte[] record) throws IOException {
+        if (batchLength + record.length > batch.length) {
+            writeBatch();
+        }
+        unpersisted++;
+        if (record.length >= batch.length) {
+            target.write(record);
+            bytesWritten.add(record.length);
+            writeBatch();
+            return;
+        }
+        if (batchLength == 0) {
+            batchStartedAt = System.nanoTime();
+        }
+        System.arraycopy(record, 0, batch, batchLength, record.length);
+        batchLength += record.length;
+    }
+
+    private void writeBatch() throws IOException {
+        if (batchLength > 0) {
+            target.write(batch, 0, batchLength);
+            bytesWritten.add(batchLength);
+            batchesWritten.increment();
+            batchLength = 0;
+        }
+        target.flush();
+        synchronized (progress) {
+            persisted += unpersisted;
+            unpersisted = 0;
+            progress.notifyAll();
+        }
+    }
+
+    private void closeTarget() {
+        try {
+            target.flush();
+            if (closeTarget) {
+                target.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to close {} target", name, e);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(bytesWritten.sum(), batchesWritten.sum(), stalls.sum(), queue.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("leon.output.queued", queue, BlockingQueue::size)
+                .tag("sink", name)
+                .register(registry);
+        FunctionCounter.builder("leon.output.stalls", stalls, LongAdder::sum)
+                .tag("sink", name)
+                .register(registry);
+        FunctionCounter.builder("leon.output.bytes", bytesWritten, LongAdder::sum)
+                .tag("sink", name)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public record Stats(
+            long bytesWritten,
+            long batchesWritten,
+            long stalls,
+            int queued
+    ) { }
+}
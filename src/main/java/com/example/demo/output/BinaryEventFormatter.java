@@ -0,0 +1,106 @@
+package com.example.demo.output;
+
+import com.example.demo.diff.RunnerChange;
+import com.example.demo.model.Event;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class BinaryEventFormatter implements EventFormatter {
+
+    public static final byte EVENT_RECORD = 1;
+    public static final byte CHANGES_RECORD = 2;
+
+    @Override
+    public void writeEvent(EventSource source, Event event, RecordBuffer out) {
+        int start = beginRecord(out);
+        try {
+            DataOutputStream data = new DataOutputStream(out);
+            writeHeader(data, EVENT_RECORD, source, event);
+
+            List<Market> markets = event.markets() == null ? List.of() : event.markets();
+            data.writeInt((int) markets.stream().filter(Market::open).count());
+            for (Market market : markets) {
+                if (market.open()) {
+                    writeMarket(data, market);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endRecord(out, start);
+    }
+
+    @Override
+    public void writeChanges(EventSource source, Event event, List<RunnerChange> changes, RecordBuffer out) {
+        int start = beginRecord(out);
+        try {
+            DataOutputStream data = new DataOutputStream(out);
+            writeHeader(data, CHANGES_RECORD, source, event);
+
+            data.writeInt(changes.size());
+            for (RunnerChange change : changes) {
+                data.writeByte(change.type().ordinal());
+                data.writeLong(change.marketId());
+                writeString(data, change.marketName());
+                data.writeLong(change.runnerId());
+                writeString(data, change.runnerName());
+                data.writeDouble(change.oldPrice());
+                data.writeDouble(change.newPrice());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endRecord(out, start);
+    }
+
+    private int beginRecord(RecordBuffer out) {
+        int start = out.size();
+        out.write(0);
+        out.write(0);
+        out.write(0);
+        out.write(0);
+        return start;
+    }
+
+    private void endRecord(RecordBuffer out, int start) {
+        out.putInt(start, out.size() - start - Integer.BYTES);
+    }
+
+    private void writeHeader(DataOutputStream data, byte type, EventSource source, Event event) throws IOException {
+        data.writeByte(type);
+        data.writeLong(event.id());
+        data.writeLong(event.kickoff());
+        writeString(data, event.name());
+        data.writeLong(source.league().id());
+        writeString(data, source.sport().name());
+        writeString(data, source.region().name());
+        writeString(data, source.league().name());
+    }
+
+    private void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private void writeMarket(DataOutputStream data, Market market) throws IOException {
+        List<Runner> runners = market.runners() == null ? List.of() : market.runners();
+
+        data.writeLong(market.id());
+        writeString(data, market.name());
+        data.writeInt((int) runners.stream().filter(Runner::open).count());
+        for (Runner runner : runners) {
+            if (runner.open()) {
+                data.writeLong(runner.id());
+                writeString(data, runner.name());
+                data.writeDouble(runner.price());
+            }
+        }
+    }
+}
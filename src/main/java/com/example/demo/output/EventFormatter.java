@@ -0,0 +1,13 @@
+package com.example.demo.output;
+
+import com.example.demo.diff.RunnerChange;
+import com.example.demo.model.Event;
+
+import java.util.List;
+
+public interface EventFormatter {
+
+    void writeEvent(EventSource source, Event event, RecordBuffer out);
+
+    void writeChanges(EventSource source, Event event, List<RunnerChange> changes, RecordBuffer out);
+}
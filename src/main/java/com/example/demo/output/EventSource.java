@@ -0,0 +1,11 @@
+package com.example.demo.output;
+
+import com.example.demo.model.League;
+import com.example.demo.model.Region;
+import com.example.demo.model.Sport;
+
+public record EventSource(
+        Sport sport,
+        Region region,
+        League league
+) { }
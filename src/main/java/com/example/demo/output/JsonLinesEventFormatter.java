@@ -0,0 +1,108 @@
+package com.example.demo.output;
+
+import com.example.demo.diff.RunnerChange;
+import com.example.demo.model.Event;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+
+public class JsonLinesEventFormatter implements EventFormatter {
+
+    private final JsonFactory factory;
+
+    public JsonLinesEventFormatter(JsonFactory factory) {
+        this.factory = factory.copy().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void writeEvent(EventSource source, Event event, RecordBuffer out) {
+        try (JsonGenerator gen = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            writeHeader(gen, source, event);
+            gen.writeArrayFieldStart("markets");
+            if (event.markets() != null) {
+                for (Market market : event.markets()) {
+                    if (market.open()) {
+                        writeMarket(gen, market);
+                    }
+                }
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void writeChanges(EventSource source, Event event, List<RunnerChange> changes, RecordBuffer out) {
+        try (JsonGenerator gen = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            writeHeader(gen, source, event);
+            gen.writeArrayFieldStart("changes");
+            for (RunnerChange change : changes) {
+                writeChange(gen, change);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.write('\n');
+    }
+
+    private void writeHeader(JsonGenerator gen, EventSource source, Event event) throws IOException {
+        gen.writeNumberField("eventId", event.id());
+        gen.writeStringField("name", event.name());
+        gen.writeNumberField("kickoff", event.kickoff());
+        gen.writeStringField("sport", source.sport().name());
+        gen.writeStringField("region", source.region().name());
+        gen.writeStringField("league", source.league().name());
+        gen.writeNumberField("leagueId", source.league().id());
+    }
+
+    private void writeMarket(JsonGenerator gen, Market market) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", market.id());
+        gen.writeStringField("name", market.name());
+        gen.writeArrayFieldStart("runners");
+        if (market.runners() != null) {
+            for (Runner runner : market.runners()) {
+                if (!runner.open()) {
+                    continue;
+                }
+                gen.writeStartObject();
+                gen.writeNumberField("id", runner.id());
+                gen.writeStringField("name", runner.name());
+                gen.writeNumberField("price", runner.price());
+                gen.writeEndObject();
+            }
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void writeChange(JsonGenerator gen, RunnerChange change) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", change.type().name().toLowerCase(Locale.ROOT));
+        gen.writeNumberField("marketId", change.marketId());
+        gen.writeStringField("market", change.marketName());
+        gen.writeNumberField("runnerId", change.runnerId());
+        gen.writeStringField("runner", change.runnerName());
+        if (!Double.isNaN(change.oldPrice())) {
+            gen.writeNumberField("oldPrice", change.oldPrice());
+        }
+        if (!Double.isNaN(change.newPrice())) {
+            gen.writeNumberField("newPrice", change.newPrice());
+        }
+        gen.writeEndObject();
+    }
+}
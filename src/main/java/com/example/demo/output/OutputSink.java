@@ -0,0 +1,15 @@
+package com.example.demo.output;
+
+public interface OutputSink extends AutoCloseable {
+
+    void write(byte[] record);
+
+    void flush();
+
+    default boolean isFull() {
+        return false;
+    }
+
+    @Override
+    void close();
+}
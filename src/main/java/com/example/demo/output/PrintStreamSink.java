@@ -0,0 +1,37 @@
+package com.example.demo.output;
+
+import java.io.PrintStream;
+
+public class PrintStreamSink implements OutputSink {
+
+    private final PrintStream out;
+    private final boolean closeStream;
+
+    public PrintStreamSink(PrintStream out) {
+        this(out, false);
+    }
+
+    public PrintStreamSink(PrintStream out, boolean closeStream) {
+        this.out = out;
+        this.closeStream = closeStream;
+    }
+
+    @Override
+    public void write(byte[] record) {
+        out.write(record, 0, record.length);
+        out.flush();
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        out.flush();
+        if (closeStream) {
+            out.close();
+        }
+    }
+}
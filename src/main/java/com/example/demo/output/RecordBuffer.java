@@ -0,0 +1,17 @@
+package com.example.demo.output;
+
+import java.io.ByteArrayOutputStream;
+
+public class RecordBuffer extends ByteArrayOutputStream {
+
+    public RecordBuffer(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    public void putInt(int position, int value) {
+        buf[position] = (byte) (value >>> 24);
+        buf[position + 1] = (byte) (value >>> 16);
+        buf[position + 2] = (byte) (value >>> 8);
+        buf[position + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.output;
+
+import com.example.demo.diff.ChangeType;
+import com.example.demo.diff.RunnerChange;
+import com.example.demo.model.Event;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+public class TextEventFormatter implements EventFormatter {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss 'UTC'").withZone(ZoneOffset.UTC);
+
+    private static final int STRING_BUILDER_INITIAL_CAPACITY = 512;
+
+    @Override
+    public void writeEvent(EventSource source, Event event, RecordBuffer out) {
+        StringBuilder sb = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
+
+        appendEventHeader(sb, source, event);
+        appendMarkets(sb, event);
+
+        out.writeBytes(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeChanges(EventSource source, Event event, List<RunnerChange> changes, RecordBuffer out) {
+        StringBuilder sb = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
+        appendEventHeader(sb, source, event);
+
+        long marketId = 0;
+        boolean firstChange = true;
+        for (RunnerChange change : changes) {
+            if (firstChange || change.marketId() != marketId) {
+                sb.append("        ").append(change.marketName()).append('\n');
+                marketId = change.marketId();
+                firstChange = false;
+            }
+            appendChange(sb, change);
+        }
+
+        out.writeBytes(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void appendEventHeader(StringBuilder sb, EventSource source, Event event) {
+        String leagueName = source.region().name() + " " + source.league().name();
+        String kickoffStr = DATE_FORMATTER.format(Instant.ofEpochMilli(event.kickoff()));
+
+        sb.append('\n')
+          .append(source.sport().name())
+          .append(", ")
+          .append(leagueName)
+          .append("\n    ")
+          .append(event.name())
+          .append(", ")
+          .append(kickoffStr)
+          .append(", ")
+          .append(event.id())
+          .append('\n');
+    }
+
+    private void appendMarkets(StringBuilder sb, Event event) {
+        if (event.markets() == null) {
+            return;
+        }
+
+        for (Market market : event.markets()) {
+            if (!market.open()) {
+                continue;
+            }
+            sb.append("        ").append(market.name()).append('\n');
+            appendRunners(sb, market);
+        }
+    }
+
+    private void appendRunners(StringBuilder sb, Market market) {
+        if (market.runners() == null) {
+            return;
+        }
+
+        for (Runner runner : market.runners()) {
+            if (!runner.open()) {
+                continue;
+            }
+            sb.append("            ")
+              .append(runner.name()).append(", ")
+              .append(runner.price()).append(", ")
+              .append(runner.id()).append('\n');
+        }
+    }
+
+    private void appendChange(StringBuilder sb, RunnerChange change) {
+        sb.append("            ").append(change.runnerName()).append(", ");
+        switch (change.type()) {
+            case PRICE_CHANGED -> sb.append(change.oldPrice()).append(" -> ").append(change.newPrice());
+            case REMOVED, SUSPENDED -> sb.append(change.oldPrice());
+            default -> sb.append(change.newPrice());
+        }
+        sb.append(", ").append(change.runnerId());
+        if (change.type() != ChangeType.PRICE_CHANGED) {
+            sb.append(", ").append(change.type().name().toLowerCase(Locale.ROOT));
+        }
+        sb.append('\n');
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class AdaptiveConcurrencyLimiter {
+
+    private final Object lock = new Object();
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final Predicate<Throwable> overloadSignal;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(LeonApiProperties.Api.Concurrency config, int budget,
+                                      Predicate<Throwable> overloadSignal) {
+        this.adaptive = config.enabled();
+        this.minLimit = adaptive ? config.minLimit() : budget;
+        this.maxLimit = adaptive ? Math.max(config.minLimit(), Math.min(config.maxLimit(), budget)) : budget;
+        this.backoffRatio = config.backoffRatio();
+        this.latencyThresholdNanos = config.latencyThreshold().toNanos();
+        this.overloadSignal = overloadSignal;
+        this.limit = adaptive ? Math.clamp(config.initialLimit(), minLimit, maxLimit) : budget;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    public <T> Mono<T> limit(Mono<T> call) {
+        return Mono.usingWhen(acquire(),
+                permit -> call,
+                permit -> release(permit, null),
+                (permit, error) -> release(permit, error),
+                this::cancel);
+    }
+
+    public <T> Flux<T> limit(Flux<T> call) {
+        return Flux.usingWhen(acquire(),
+                permit -> call,
+                permit -> release(permit, null),
+                (permit, error) -> release(permit, error),
+                this::cancel);
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = null;
+            synchronized (lock) {
+                if (waiters.isEmpty() && inFlight < (int) limit) {
+                    inFlight++;
+                } else {
+                    waiter = new Waiter(sink);
+                    waiters.addLast(waiter);
+                }
+            }
+
+            if (waiter == null) {
+                sink.success(new Permit(System.nanoTime()));
+                return;
+            }
+
+            Waiter queued = waiter;
+            sink.onCancel(() -> {
+                boolean stillQueued;
+                synchronized (lock) {
+                    stillQueued = waiters.remove(queued);
+                }
+                if (!stillQueued) {
+                    releasePermit();
+                }
+            });
+        });
+    }
+
+    private Mono<Void> release(Permit permit, Throwable error) {
+        return Mono.fromRunnable(() -> {
+            long now = System.nanoTime();
+            if (adaptive) {
+                synchronized (lock) {
+                    adjust(permit, error, now);
+                }
+            }
+            releasePermit();
+        });
+    }
+
+    private Mono<Void> cancel(Permit permit) {
+        return Mono.fromRunnable(this::releasePermit);
+    }
+
+    private void adjust(Permit permit, Throwable error, long now) {
+        boolean overloaded = error != null
+                ? overloadSignal.test(error)
+                : now - permit.startedAt() > latencyThresholdNanos;
+
+        if (overloaded) {
+            if (permit.startedAt() > lastDecreaseNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (error == null && inFlight * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private void releasePermit() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (lock) {
+            inFlight--;
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                granted.add(waiters.pollFirst());
+                inFlight++;
+            }
+        }
+        long now = System.nanoTime();
+        for (Waiter waiter : granted) {
+            waiter.sink().success(new Permit(now));
+        }
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats((int) limit, inFlight, waiters.size());
+        }
+    }
+
+    private record Permit(long startedAt) { }
+
+    private record Waiter(MonoSink<Permit> sink) { }
+
+    public record Stats(
+            int limit,
+            int inFlight,
+            int queued
+    ) { }
+}
@@ -0,0 +1,267 @@
+package com.example.demo.service;
+
+import com.example.demo.codec.ResponseDecompressionFilter;
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.metrics.ApiMetricsFilter;
+import com.example.demo.model.Event;
+import com.example.demo.model.Sport;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+public class BlockingLeonApiClient implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BlockingLeonApiClient.class);
+
+    private static final String CTAG = "en-US";
+    private static final String FLAGS = "reg,urlv2,mm2,rrc,nodup";
+    private static final String EVENTS_FIELD = "events";
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final int DECOMPRESSION_BUFFER_SIZE = 8192;
+    private static final double JITTER = 0.5;
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final String userAgent;
+    private final int maxRetries;
+    private final Duration retryDelay;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final Semaphore inFlight;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader eventReader;
+    private final ApiMetricsFilter metrics;
+    private final Map<String, Counter> retries;
+    private final Map<String, Counter> wireBytes;
+    private final Map<String, Counter> decodedBytes;
+
+    public BlockingLeonApiClient(LeonApiProperties properties, ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        LeonApiProperties.Api api = properties.api();
+        this.baseUrl = api.baseUrl();
+        this.timeout = api.timeout();
+        this.userAgent = api.http().userAgent();
+        this.maxRetries = api.retry().maxAttempts();
+        this.retryDelay = api.retry().delay();
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .version(api.network().http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .build();
+        this.inFlight = new Semaphore(properties.maxInFlightRequests());
+        this.objectMapper = objectMapper;
+        this.eventReader = objectMapper.readerFor(Event.class);
+        this.metrics = new ApiMetricsFilter(meterRegistry);
+        this.retries = counters(meterRegistry, "leon.api.retries", null);
+        this.wireBytes = counters(meterRegistry, ResponseDecompressionFilter.WIRE_BYTES, "bytes");
+        this.decodedBytes = counters(meterRegistry, ResponseDecompressionFilter.DECODED_BYTES, "bytes");
+    }
+
+    private static Map<String, Counter> counters(MeterRegistry meterRegistry, String name, String baseUnit) {
+        return Stream.of("sports", "events-all", "event-all").collect(Collectors.toUnmodifiableMap(
+                Function.identity(),
+                endpoint -> Counter.builder(name).baseUnit(baseUnit).tag("endpoint", endpoint).register(meterRegistry)));
+    }
+
+    public List<Sport> getSports() {
+        try {
+            return execute("/api-2/betline/sports", "ctag=" + CTAG + "&flags=urlv2",
+                    body -> objectMapper.readValue(body, new TypeReference<List<Sport>>() { }));
+        } catch (IOException | LeonApiService.ApiException e) {
+            LOG.error("Error fetching sports", e);
+            return List.of();
+        }
+    }
+
+    public List<Event> eventsByLeague(long leagueId, int limit) {
+        try {
+            return execute("/api-2/betline/events/all", "ctag=" + CTAG + "&league_id=" + leagueId
+                    + "&hideClosed=true&flags=" + FLAGS, body -> readEvents(body, limit));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to fetch events for league " + leagueId, e);
+        }
+    }
+
+    public Optional<Event> eventDetails(long eventId) {
+        try {
+            return Optional.ofNullable(execute("/api-2/betline/event/all",
+                    "ctag=" + CTAG + "&eventId=" + eventId + "&flags=" + FLAGS, eventReader::readValue));
+        } catch (IOException | LeonApiService.ApiException e) {
+            LOG.error("Error fetching event details for {}", eventId, e);
+            return Optional.empty();
+        }
+    }
+
+    private List<Event> readEvents(InputStream body, int limit) throws IOException {
+        NearestKickoffs events = new NearestKickoffs(limit);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return List.of();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                JsonToken value = parser.nextToken();
+                if (!EVENTS_FIELD.equals(parser.currentName()) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    events.offer(eventReader.readValue(parser));
+                }
+                return events.toList();
+            }
+        }
+        return events.toList();
+    }
+
+    private <T> T execute(String path, String query, BodyReader<T> reader) throws IOException {
+        String endpoint = ApiMetricsFilter.endpoint(path);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path + "?" + query))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .header("User-Agent", userAgent)
+                .GET()
+                .build();
+
+        for (int attempt = 0;; attempt++) {
+            try {
+                return send(request, path, endpoint, reader);
+            } catch (JsonProcessingException e) {
+                throw e;
+            } catch (IOException | LeonApiService.ApiException e) {
+                if (attempt >= maxRetries || !isRetryable(e) || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                retries.get(endpoint).increment();
+                sleep(backoff(attempt));
+            }
+        }
+    }
+
+    private <T> T send(HttpRequest request, String path, String endpoint, BodyReader<T> reader)
+            throws IOException {
+        inFlight.acquireUninterruptibly();
+        long start = metrics.requestStarted();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (CountingInputStream wire = new CountingInputStream(response.body())) {
+                if (response.statusCode() >= 400) {
+                    metrics.recordResponse(endpoint, response.statusCode(), 0, start);
+                    throw new LeonApiService.ApiException("Request failed", response.statusCode(), path);
+                }
+                String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+                try (CountingInputStream body = new CountingInputStream(decompress(wire, encoding))) {
+                    T result = reader.read(body);
+                    metrics.recordResponse(endpoint, response.statusCode(), body.count, start);
+                    wireBytes.get(endpoint).increment(wire.count);
+                    decodedBytes.get(endpoint).increment(body.count);
+                    return result;
+                }
+            }
+        } catch (IOException e) {
+            metrics.recordError(endpoint, e, start);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeonApiService.ApiException("Interrupted", 0, path);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private static InputStream decompress(InputStream wire, String contentEncoding) throws IOException {
+        return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(wire, DECOMPRESSION_BUFFER_SIZE);
+            case "deflate", "x-deflate" -> new InflaterInputStream(wire);
+            default -> wire;
+        };
+    }
+
+    private static boolean isRetryable(Exception e) {
+        return !(e instanceof LeonApiService.ApiException apiEx) || apiEx.isRetryable();
+    }
+
+    private Duration backoff(int attempt) {
+        long base = retryDelay.toMillis() << Math.min(attempt, 20);
+        long jitter = (long) (base * JITTER * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        return Duration.ofMillis(Math.max(0, base + jitter));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeonApiService.ApiException("Interrupted");
+        }
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        executor.close();
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
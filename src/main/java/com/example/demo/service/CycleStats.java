@@ -0,0 +1,10 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+
+public record CycleStats(
+        long cycle,
+        Duration duration,
+        Duration lag,
+        int leaguesRefreshed
+) { }
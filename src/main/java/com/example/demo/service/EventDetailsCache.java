@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.model.Event;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EventDetailsCache {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final Map<Long, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public EventDetailsCache(LeonApiProperties.Api.Cache config) {
+        this.ttlMillis = config.ttl().toMillis();
+        this.maxStaleMillis = config.maxStale().toMillis();
+        int maxEntries = config.maxEntries();
+        this.entries = new LinkedHashMap<>(16, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Entry lookup(long eventId, long nowMillis) {
+        Entry entry = entries.get(eventId);
+        if (entry != null && nowMillis - entry.validatedAt() > maxStaleMillis) {
+            entries.remove(eventId);
+            return null;
+        }
+        return entry;
+    }
+
+    public boolean isFresh(Entry entry, long nowMillis) {
+        return nowMillis - entry.validatedAt() < ttlMillis;
+    }
+
+    public Event hit(Entry entry) {
+        hits.increment();
+        return entry.event();
+    }
+
+    public Event onResponse(long eventId, Entry previous, ResponseEntity<Event> response, long bodyBytes,
+                            long nowMillis) {
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && previous != null) {
+            revalidations.increment();
+            bytesSaved.add(previous.bodyBytes());
+            store(eventId, new Entry(previous.event(), previous.etag(), previous.lastModified(),
+                    nowMillis, previous.bodyBytes()));
+            return previous.event();
+        }
+
+        misses.increment();
+        Event event = response.getBody();
+        if (event != null) {
+            HttpHeaders headers = response.getHeaders();
+            store(eventId, new Entry(event, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED),
+                    nowMillis, bodyBytes > 0 ? bodyBytes : Math.max(0, headers.getContentLength())));
+        }
+        return event;
+    }
+
+    public Event stale(Entry entry) {
+        staleServed.increment();
+        return entry.event();
+    }
+
+    private synchronized void store(long eventId, Entry entry) {
+        entries.put(eventId, entry);
+    }
+
+    public synchronized Map<Long, Entry> entries() {
+        return new LinkedHashMap<>(entries);
+    }
+
+    public synchronized void restore(Map<Long, Entry> restored) {
+        for (Map.Entry<Long, Entry> entry : restored.entrySet()) {
+            entries.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), revalidations.sum(), staleServed.sum(), bytesSaved.sum(), size());
+    }
+
+    public record Entry(
+            Event event,
+            String etag,
+            String lastModified,
+            long validatedAt,
+            long bodyBytes
+    ) {
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    public record Stats(
+            long hits,
+            long misses,
+            long revalidations,
+            long staleServed,
+            long bytesSaved,
+            int size
+    ) { }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.diff.OddsDiffEngine;
+import com.example.demo.diff.RunnerChange;
+import com.example.demo.model.Event;
+import com.example.demo.output.EventFormatter;
+import com.example.demo.output.EventSource;
+import com.example.demo.output.OutputSink;
+import com.example.demo.output.RecordBuffer;
+import com.example.demo.store.TickStore;
+import io.micrometer.core.instrument.Counter;
+
+import java.util.List;
+
+final class EventPrinter {
+
+    private final OutputSink outputSink;
+    private final EventFormatter formatter;
+    private final TickStore tickStore;
+    private final OddsDiffEngine diffEngine;
+    private final boolean changesOnly;
+    private final Counter eventsPrinted;
+
+    EventPrinter(OutputSink outputSink, EventFormatter formatter, TickStore tickStore, OddsDiffEngine diffEngine,
+                 boolean changesOnly, Counter eventsPrinted) {
+        this.outputSink = outputSink;
+        this.formatter = formatter;
+        this.tickStore = tickStore;
+        this.diffEngine = diffEngine;
+        this.changesOnly = changesOnly;
+        this.eventsPrinted = eventsPrinted;
+    }
+
+    void print(Event event, LeonBetsParser.LeagueContext ctx, RecordBuffer buffer) {
+        EventSource source = new EventSource(ctx.sport(), ctx.region(), ctx.league());
+        tickStore.append(event, System.currentTimeMillis());
+        buffer.reset();
+
+        if (changesOnly) {
+            List<RunnerChange> changes = diffEngine.diff(event);
+            if (changes.isEmpty()) {
+                return;
+            }
+            formatter.writeChanges(source, event, changes, buffer);
+        } else {
+            formatter.writeEvent(source, event, buffer);
+        }
+
+        outputSink.write(buffer.toByteArray());
+        eventsPrinted.increment();
+    }
+}
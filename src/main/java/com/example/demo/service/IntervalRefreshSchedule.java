@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Sport;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IntervalRefreshSchedule implements RefreshSchedule {
+
+    private static final long NO_KICKOFF = 0L;
+
+    private final LeonApiProperties.Parser.Polling polling;
+    private final Map<Long, LeagueState> states = new ConcurrentHashMap<>();
+    private final AtomicInteger refreshCount = new AtomicInteger();
+
+    public IntervalRefreshSchedule(LeonApiProperties.Parser.Polling polling) {
+        this.polling = polling;
+    }
+
+    @Override
+    public boolean isDue(Sport sport, League league, long nowMillis) {
+        LeagueState state = states.get(league.id());
+        if (state == null) {
+            return true;
+        }
+        return nowMillis - state.refreshedAt() >= intervalFor(sport, league, nowMillis).toMillis();
+    }
+
+    @Override
+    public long dueAt(Sport sport, League league, long nowMillis) {
+        LeagueState state = states.get(league.id());
+        if (state == null) {
+            return Long.MIN_VALUE;
+        }
+        return state.refreshedAt() + intervalFor(sport, league, nowMillis).toMillis();
+    }
+
+    @Override
+    public int maxLeaguesPerCycle() {
+        return polling.maxLeaguesPerCycle() > 0 ? polling.maxLeaguesPerCycle() : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void onRefreshed(Sport sport, League league, List<Event> events, long nowMillis) {
+        long nextKickoff = events.stream()
+                .mapToLong(Event::kickoff)
+                .filter(kickoff -> kickoff >= nowMillis)
+                .min()
+                .orElse(NO_KICKOFF);
+        states.put(league.id(), new LeagueState(nowMillis, nextKickoff));
+        refreshCount.incrementAndGet();
+    }
+
+    Duration intervalFor(Sport sport, League league, long nowMillis) {
+        Duration interval = polling.leagueIntervals().get(league.id());
+        if (interval == null) {
+            interval = polling.sportIntervals().getOrDefault(sport.family(), polling.defaultInterval());
+        }
+
+        LeagueState state = states.get(league.id());
+        if (state == null || state.nextKickoff() == NO_KICKOFF) {
+            return interval;
+        }
+        long untilKickoff = state.nextKickoff() - nowMillis;
+        if (untilKickoff <= polling.kickoffWindow().toMillis() && polling.kickoffInterval().compareTo(interval) < 0) {
+            return polling.kickoffInterval();
+        }
+        if (untilKickoff > polling.distantKickoff().toMillis() && polling.distantInterval().compareTo(interval) > 0) {
+            return polling.distantInterval();
+        }
+        return interval;
+    }
+
+    public int refreshCount() {
+        return refreshCount.get();
+    }
+
+    public Map<Long, LeagueState> states() {
+        return Map.copyOf(states);
+    }
+
+    public void restore(Map<Long, LeagueState> restored) {
+        restored.forEach(states::putIfAbsent);
+    }
+
+    public record LeagueState(long refreshedAt, long nextKickoff) { }
+}
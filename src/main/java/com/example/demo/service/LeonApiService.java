@@ -1,24 +1,43 @@
 package com.example.demo.service;
 
+import com.example.demo.codec.EventStreamDecoder;
+import com.example.demo.codec.ResponseDecompressionFilter;
 import com.example.demo.config.LeonApiProperties;
 import com.example.demo.model.Event;
 import com.example.demo.model.EventsResponse;
 import com.example.demo.model.Sport;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
-import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
 import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
 
 @Service
 public class LeonApiService {
@@ -29,46 +48,102 @@ public class LeonApiService {
     private static final String FLAGS = "reg,urlv2,mm2,rrc,nodup";
     private static final int SERVER_ERROR_THRESHOLD = 500;
     private static final int TOO_MANY_REQUESTS = 429;
+    private static final String SPORTS_KEY = "sports";
+    private static final String SPORTS_SCOPE = "sports";
 
     private final WebClient webClient;
-    private final Retry retrySpec;
-    private final CircuitBreaker circuitBreaker;
-    private final boolean circuitBreakerEnabled;
+    private final EventStreamDecoder eventStreamDecoder;
+    private final RetryBackoffSpec sportsRetry;
+    private final RetryBackoffSpec eventsRetry;
+    private final RetryBackoffSpec eventRetry;
+    private final ScopedResilience resilience;
+    private final EventDetailsCache eventCache;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RequestHedger hedger;
+    private final SingleFlight<String, List<Sport>> sportsFlight = new SingleFlight<>("sports");
+    private final SingleFlight<Long, Event> eventFlight = new SingleFlight<>("event");
 
-    public LeonApiService(WebClient webClient, LeonApiProperties properties) {
+    public LeonApiService(WebClient webClient, LeonApiProperties properties, EventStreamDecoder eventStreamDecoder,
+                          MeterRegistry meterRegistry) {
         this.webClient = webClient;
-        this.retrySpec = Retry.backoff(
-                properties.api().retry().maxAttempts(),
-                properties.api().retry().delay()
-        ).filter(this::isRetryableException);
+        this.eventStreamDecoder = eventStreamDecoder;
+        this.sportsRetry = createRetrySpec(properties.api().retry(), "sports", meterRegistry);
+        this.eventsRetry = createRetrySpec(properties.api().retry(), "events-all", meterRegistry);
+        this.eventRetry = createRetrySpec(properties.api().retry(), "event-all", meterRegistry);
 
-        LeonApiProperties.Api.CircuitBreaker cbConfig = properties.api().circuitBreaker();
-        this.circuitBreakerEnabled = cbConfig.enabled();
-        this.circuitBreaker = createCircuitBreaker(cbConfig);
+        this.resilience = new ScopedResilience(properties.api().circuitBreaker(), meterRegistry);
+
+        LeonApiProperties.Api.Cache cacheConfig = properties.api().cache();
+        this.eventCache = cacheConfig.enabled() ? new EventDetailsCache(cacheConfig) : null;
+        this.limiter = new AdaptiveConcurrencyLimiter(properties.api().concurrency(),
+                properties.maxInFlightRequests(), this::isOverloadSignal);
+        this.hedger = new RequestHedger(properties.api().hedge());
+        bindMetrics(meterRegistry);
+    }
+
+    private RetryBackoffSpec createRetrySpec(LeonApiProperties.Api.Retry retry, String endpoint,
+                                             MeterRegistry meterRegistry) {
+        Counter retries = Counter.builder("leon.api.retries")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return Retry.backoff(retry.maxAttempts(), retry.delay())
+                .filter(this::isRetryableException)
+                .doBeforeRetry(signal -> retries.increment());
     }
 
-    private CircuitBreaker createCircuitBreaker(LeonApiProperties.Api.CircuitBreaker cbConfig) {
-        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
-                .failureRateThreshold(cbConfig.failureRateThreshold())
-                .slidingWindowSize(cbConfig.slidingWindowSize())
-                .waitDurationInOpenState(cbConfig.waitDurationInOpenState())
-                .permittedNumberOfCallsInHalfOpenState(cbConfig.permittedNumberOfCallsInHalfOpenState())
-                .build();
+    private void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("leon.api.concurrency.limit", this, s -> s.limiterStats().limit()).register(meterRegistry);
+        Gauge.builder("leon.api.concurrency.in.flight", this, s -> s.limiterStats().inFlight()).register(meterRegistry);
+        Gauge.builder("leon.api.concurrency.queued", this, s -> s.limiterStats().queued()).register(meterRegistry);
+
+        Gauge.builder("leon.api.cache.size", this, s -> s.cacheStats().size()).register(meterRegistry);
+        cacheCounter(meterRegistry, "hit", s -> s.cacheStats().hits());
+        cacheCounter(meterRegistry, "miss", s -> s.cacheStats().misses());
+        cacheCounter(meterRegistry, "revalidated", s -> s.cacheStats().revalidations());
+        cacheCounter(meterRegistry, "stale", s -> s.cacheStats().staleServed());
+        FunctionCounter.builder("leon.api.cache.bytes.saved", this, s -> s.cacheStats().bytesSaved())
+                .baseUnit("bytes")
+                .register(meterRegistry);
 
-        CircuitBreaker cb = CircuitBreaker.of("leonApi", config);
+        FunctionCounter.builder("leon.api.hedges", this, s -> s.hedgeStats().hedges())
+                .tag("result", "sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("leon.api.hedges", this, s -> s.hedgeStats().wins())
+                .tag("result", "won")
+                .register(meterRegistry);
+        TimeGauge.builder("leon.api.hedge.delay", this, TimeUnit.NANOSECONDS,
+                        s -> s.hedgeStats().delay().toNanos())
+                .register(meterRegistry);
 
-        cb.getEventPublisher()
-                .onStateTransition(event ->
-                        LOG.warn("Circuit breaker state changed: {} -> {}",
-                                event.getStateTransition().getFromState(),
-                                event.getStateTransition().getToState()));
+        singleFlightCounters(meterRegistry, sportsFlight);
+        singleFlightCounters(meterRegistry, eventFlight);
+    }
+
+    private void singleFlightCounters(MeterRegistry meterRegistry, SingleFlight<?, ?> flight) {
+        String name = flight.stats().name();
+        FunctionCounter.builder("leon.api.singleflight.calls", flight, f -> f.stats().calls() - f.stats().coalesced())
+                .tag("flight", name)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("leon.api.singleflight.calls", flight, f -> f.stats().coalesced())
+                .tag("flight", name)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
 
-        return cb;
+    private void cacheCounter(MeterRegistry meterRegistry, String result, ToDoubleFunction<LeonApiService> count) {
+        FunctionCounter.builder("leon.api.cache.lookups", this, count)
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     public Mono<List<Sport>> getSports() {
+        return sportsFlight.execute(SPORTS_KEY, this::fetchSports);
+    }
+
+    private Mono<List<Sport>> fetchSports() {
         String path = "/api-2/betline/sports";
-        Mono<List<Sport>> request = webClient.get()
+        return limiter.limit(resilience.protect(SPORTS_SCOPE, webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path(path)
                         .queryParam("ctag", CTAG)
@@ -78,17 +153,15 @@ public class LeonApiService {
                 .onStatus(HttpStatusCode::isError, response ->
                         Mono.error(new ApiException("Failed to fetch sports",
                                 response.statusCode().value(), path)))
-                .bodyToMono(new ParameterizedTypeReference<List<Sport>>() { })
-                .retryWhen(retrySpec)
+                .bodyToMono(new ParameterizedTypeReference<List<Sport>>() { })))
+                .retryWhen(sportsRetry)
                 .doOnError(e -> LOG.error("Error fetching sports", e))
                 .onErrorReturn(Collections.emptyList());
-
-        return applyCircuitBreaker(request);
     }
 
     public Mono<EventsResponse> getEventsByLeague(long leagueId) {
         String path = "/api-2/betline/events/all";
-        Mono<EventsResponse> request = webClient.get()
+        return limiter.limit(resilience.protect(ScopedResilience.league(leagueId), webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path(path)
                         .queryParam("ctag", CTAG)
@@ -100,50 +173,171 @@ public class LeonApiService {
                 .onStatus(HttpStatusCode::isError, response ->
                         Mono.error(new ApiException("Failed to fetch events for league " + leagueId,
                                 response.statusCode().value(), path)))
-                .bodyToMono(EventsResponse.class)
-                .retryWhen(retrySpec)
+                .bodyToMono(EventsResponse.class)))
+                .retryWhen(eventsRetry)
                 .doOnError(e -> LOG.warn("Error fetching events for league {}: {}", leagueId, e.getMessage()))
                 .onErrorReturn(new EventsResponse());
+    }
 
-        return applyCircuitBreaker(request);
+    public Flux<Event> streamEventsByLeague(long leagueId) {
+        String path = "/api-2/betline/events/all";
+        return Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean();
+            Flux<DataBuffer> body = webClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path(path)
+                            .queryParam("ctag", CTAG)
+                            .queryParam("league_id", leagueId)
+                            .queryParam("hideClosed", "true")
+                            .queryParam("flags", FLAGS)
+                            .build())
+                    .retrieve()
+                    .onStatus(HttpStatusCode::isError, response ->
+                            Mono.error(new ApiException("Failed to fetch events for league " + leagueId,
+                                    response.statusCode().value(), path)))
+                    .bodyToFlux(DataBuffer.class);
+
+            Flux<Event> events = resilience.protect(ScopedResilience.league(leagueId), eventStreamDecoder.decode(body));
+            return limiter.limit(events)
+                    .doOnNext(event -> emitted.set(true))
+                    .retryWhen(eventsRetry.filter(e -> !emitted.get() && isRetryableException(e)))
+                    .doOnError(e -> LOG.warn("Error streaming events for league {}: {}", leagueId, e.getMessage()));
+        });
     }
 
-    public Mono<Event> getEventDetails(long eventId) {
+    public Mono<Event> getEventDetails(long leagueId, long eventId) {
+        return eventFlight.execute(eventId, () -> getEventDetailsCached(ScopedResilience.details(leagueId), eventId));
+    }
+
+    private Mono<Event> getEventDetailsCached(String scope, long eventId) {
+        if (eventCache == null) {
+            return fetchEventDetails(scope, eventId);
+        }
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            EventDetailsCache.Entry cached = eventCache.lookup(eventId, now);
+            if (cached != null && eventCache.isFresh(cached, now)) {
+                return Mono.just(eventCache.hit(cached));
+            }
+            return fetchEventDetails(scope, eventId, cached, now);
+        });
+    }
+
+    private Mono<Event> fetchEventDetails(String scope, long eventId) {
         String path = "/api-2/betline/event/all";
-        Mono<Event> request = webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path(path)
-                        .queryParam("ctag", CTAG)
-                        .queryParam("eventId", eventId)
-                        .queryParam("flags", FLAGS)
-                        .build())
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, response ->
-                        Mono.error(new ApiException("Failed to fetch event " + eventId,
-                                response.statusCode().value(), path)))
-                .bodyToMono(Event.class)
-                .retryWhen(retrySpec)
+        return hedger.hedge(() -> limiter.limit(resilience.protect(scope, hedger.measure(webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path(path)
+                                .queryParam("ctag", CTAG)
+                                .queryParam("eventId", eventId)
+                                .queryParam("flags", FLAGS)
+                                .build())
+                        .retrieve()
+                        .onStatus(HttpStatusCode::isError, response ->
+                                Mono.error(new ApiException("Failed to fetch event " + eventId,
+                                        response.statusCode().value(), path)))
+                        .bodyToMono(Event.class)))))
+                .retryWhen(eventRetry)
                 .doOnError(e -> LOG.warn("Error fetching event {}: {}", eventId, e.getMessage()))
                 .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Event> fetchEventDetails(String scope, long eventId, EventDetailsCache.Entry cached, long now) {
+        String path = "/api-2/betline/event/all";
+        return hedger.hedge(() -> {
+                    AtomicLong bodyBytes = new AtomicLong();
+                    return limiter.limit(resilience.protect(scope, hedger.measure(webClient.get()
+                                    .uri(uriBuilder -> uriBuilder
+                                            .path(path)
+                                            .queryParam("ctag", CTAG)
+                                            .queryParam("eventId", eventId)
+                                            .queryParam("flags", FLAGS)
+                                            .build())
+                                    .attribute(ResponseDecompressionFilter.BODY_BYTES_ATTRIBUTE, bodyBytes)
+                                    .headers(headers -> applyValidators(headers, cached))
+                                    .retrieve()
+                                    .onStatus(HttpStatusCode::isError, response ->
+                                            Mono.error(new ApiException("Failed to fetch event " + eventId,
+                                                    response.statusCode().value(), path)))
+                                    .toEntity(Event.class))))
+                            .map(response -> new DetailsResponse(response, bodyBytes.get()));
+                })
+                .retryWhen(eventRetry)
+                .flatMap(details -> Mono.justOrEmpty(
+                        eventCache.onResponse(eventId, cached, details.entity(), details.bodyBytes(), now)))
+                .doOnError(e -> LOG.warn("Error fetching event {}: {}", eventId, e.getMessage()))
+                .onErrorResume(e -> cached != null ? Mono.just(eventCache.stale(cached)) : Mono.empty());
+    }
+
+    private static void applyValidators(HttpHeaders headers, EventDetailsCache.Entry cached) {
+        if (cached == null) {
+            return;
+        }
+        if (cached.etag() != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+        if (cached.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+    }
 
-        return applyCircuitBreaker(request);
+    public EventDetailsCache.Stats cacheStats() {
+        return eventCache != null ? eventCache.stats() : new EventDetailsCache.Stats(0, 0, 0, 0, 0, 0);
     }
 
-    private <T> Mono<T> applyCircuitBreaker(Mono<T> mono) {
-        if (circuitBreakerEnabled) {
-            return mono.transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    public Map<Long, EventDetailsCache.Entry> cacheEntries() {
+        return eventCache != null ? eventCache.entries() : Map.of();
+    }
+
+    public void restoreCache(Map<Long, EventDetailsCache.Entry> entries) {
+        if (eventCache != null) {
+            eventCache.restore(entries);
         }
-        return mono;
+    }
+
+    public Map<String, CircuitBreaker.State> circuitBreakerStates() {
+        return resilience.states();
+    }
+
+    public RequestHedger.Stats hedgeStats() {
+        return hedger.stats();
+    }
+
+    public AdaptiveConcurrencyLimiter.Stats limiterStats() {
+        return limiter.stats();
+    }
+
+    private boolean isOverloadSignal(Throwable throwable) {
+        if (throwable instanceof BulkheadFullException) {
+            return false;
+        }
+        if (isRetryableException(throwable)) {
+            return true;
+        }
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private boolean isRetryableException(Throwable throwable) {
+        if (throwable instanceof BulkheadFullException) {
+            return true;
+        }
         if (throwable instanceof WebClientResponseException wcre) {
             int status = wcre.getStatusCode().value();
             return status >= SERVER_ERROR_THRESHOLD || status == TOO_MANY_REQUESTS;
         }
+        if (throwable instanceof WebClientRequestException && throwable.getCause() instanceof PrematureCloseException) {
+            return true;
+        }
         return throwable instanceof ApiException apiEx && apiEx.isRetryable();
     }
 
+    private record DetailsResponse(ResponseEntity<Event> entity, long bodyBytes) { }
+
     public static class ApiException extends RuntimeException {
 
         private final int statusCode;
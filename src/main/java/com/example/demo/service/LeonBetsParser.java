@@ -1,85 +1,206 @@
 package com.example.demo.service;
 
 import com.example.demo.config.LeonApiProperties;
+import com.example.demo.diff.OddsDiffEngine;
 import com.example.demo.model.Event;
 import com.example.demo.model.League;
-import com.example.demo.model.Market;
 import com.example.demo.model.Region;
-import com.example.demo.model.Runner;
 import com.example.demo.model.Sport;
+import com.example.demo.output.EventFormatter;
+import com.example.demo.output.OutputSink;
+import com.example.demo.output.PrintStreamSink;
+import com.example.demo.output.RecordBuffer;
+import com.example.demo.output.TextEventFormatter;
+import com.example.demo.store.TickStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 import java.io.PrintStream;
-import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
-@SuppressWarnings("PMD.SystemPrintln")
-public class LeonBetsParser {
+public class LeonBetsParser implements OddsParser {
 
     private static final Logger LOG = LoggerFactory.getLogger(LeonBetsParser.class);
 
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss 'UTC'").withZone(ZoneOffset.UTC);
-
-    private static final int STRING_BUILDER_INITIAL_CAPACITY = 512;
+    private static final int RECORD_BUFFER_INITIAL_CAPACITY = 4096;
 
     private final LeonApiService apiService;
     private final int maxParallelRequests;
     private final int matchesPerLeague;
+    private final int detailConcurrency;
+    private final int reorderBacklogThreshold;
     private final Set<String> targetSports;
-    private final PrintStream outputStream;
+    private final Map<String, Integer> sportWeights;
+    private final OutputSink outputSink;
+    private final EventPrinter printer;
+    private final MeterRegistry meterRegistry;
+    private final Counter eventsListed;
+    private final Counter eventsFetched;
+    private final Counter eventsDropped;
+    private final long sportsTreeTtlMillis;
+    private final long restoredTreeTtlMillis;
+    private volatile SportsTree restoredTree;
+    private final AtomicReference<SportsTree> sportsTree = new AtomicReference<>();
 
-    @Autowired
-    public LeonBetsParser(LeonApiService apiService, LeonApiProperties properties) {
-        this(apiService, properties, System.out);
+    LeonBetsParser(LeonApiService apiService, LeonApiProperties properties, OddsDiffEngine diffEngine,
+                   PrintStream outputStream) {
+        this(apiService, properties, diffEngine, new PrintStreamSink(outputStream), new TextEventFormatter(),
+                TickStore.disabled(), new SimpleMeterRegistry());
     }
 
-    LeonBetsParser(LeonApiService apiService, LeonApiProperties properties, PrintStream outputStream) {
+    @Autowired
+    public LeonBetsParser(LeonApiService apiService, LeonApiProperties properties, OddsDiffEngine diffEngine,
+                          OutputSink outputSink, EventFormatter formatter, TickStore tickStore,
+                          MeterRegistry meterRegistry) {
         this.apiService = apiService;
-        this.maxParallelRequests = properties.parser().maxParallelRequests();
+        this.maxParallelRequests = properties.maxInFlightRequests();
         this.matchesPerLeague = properties.parser().matchesPerLeague();
+        this.detailConcurrency = properties.parser().detailConcurrency();
+        this.reorderBacklogThreshold = properties.parser().reorderBacklogThreshold();
         this.targetSports = Set.copyOf(properties.parser().targetSports());
-        this.outputStream = outputStream;
+        this.sportWeights = properties.parser().sportWeights();
+        this.outputSink = outputSink;
+        this.printer = new EventPrinter(outputSink, formatter, tickStore, diffEngine,
+                properties.output().changesOnly(), meterRegistry.counter("leon.parser.events", "stage", "printed"));
+        this.meterRegistry = meterRegistry;
+        this.eventsListed = meterRegistry.counter("leon.parser.events", "stage", "listed");
+        this.eventsFetched = meterRegistry.counter("leon.parser.events", "stage", "fetched");
+        this.eventsDropped = meterRegistry.counter("leon.parser.events", "stage", "dropped");
+        LeonApiProperties.Parser.Polling polling = properties.parser().polling();
+        this.sportsTreeTtlMillis = polling.enabled() ? polling.sportsTreeInterval().toMillis() : 0;
+        this.restoredTreeTtlMillis = polling.enabled()
+                ? sportsTreeTtlMillis
+                : properties.checkpoint().maxAge().toMillis();
+    }
+
+    private Mono<List<Sport>> sports() {
+        return Mono.defer(() -> {
+            SportsTree tree = sportsTree.get();
+            if (tree != null && System.currentTimeMillis() - tree.fetchedAt() < ttlMillis(tree)) {
+                return Mono.just(tree.sports());
+            }
+            return apiService.getSports().doOnNext(sports -> {
+                if (!sports.isEmpty()) {
+                    sportsTree.set(new SportsTree(sports, System.currentTimeMillis()));
+                }
+            });
+        });
+    }
+
+    @Override
+    public Optional<SportsTree> sportsTree() {
+        return Optional.ofNullable(sportsTree.get());
+    }
+
+    @Override
+    public void restoreSportsTree(SportsTree tree) {
+        if (sportsTree.compareAndSet(null, tree)) {
+            restoredTree = tree;
+        }
+    }
+
+    private long ttlMillis(SportsTree tree) {
+        return tree == restoredTree ? restoredTreeTtlMillis : sportsTreeTtlMillis;
     }
 
+    @Override
     public Mono<Void> parse() {
         LOG.info("Starting parser for sports: {}", targetSports);
+        return parse(RefreshSchedule.always());
+    }
 
-        return apiService.getSports()
+    @Override
+    public Mono<Void> parse(RefreshSchedule schedule) {
+        return sports()
                 .doOnNext(sports -> LOG.info("Fetched {} sports from API", sports.size()))
-                .flatMapMany(Flux::fromIterable)
-                .filter(sport -> targetSports.contains(sport.family()))
-                .doOnNext(sport -> LOG.debug("Processing sport: {}", sport.name()))
-                .concatMap(this::processTopLeagues)
+                .flatMapMany(sports -> crawl(sports, schedule))
+                .then(Mono.fromRunnable(outputSink::flush).subscribeOn(Schedulers.boundedElastic()))
                 .then()
                 .doOnSuccess(v -> LOG.info("Parsing completed successfully"))
                 .doOnError(e -> LOG.error("Parsing failed", e));
     }
 
-    private Flux<Void> processTopLeagues(Sport sport) {
+    private Flux<Void> crawl(List<Sport> sports, RefreshSchedule schedule) {
+        RecordBuffer buffer = new RecordBuffer(RECORD_BUFFER_INITIAL_CAPACITY);
+        ReorderBuffer<EventOutput> output = new ReorderBuffer<>(reorderBacklogThreshold,
+                out -> printer.print(out.event(), out.ctx(), buffer));
+        WeightedFairScheduler<LeagueContext> scheduler = new WeightedFairScheduler<>(
+                Comparator.comparingInt(LeagueContext::slot), () -> output.isBacklogged() || outputSink.isFull());
+        long now = System.currentTimeMillis();
+
+        List<LeagueContext> due = new ArrayList<>();
+        for (Sport sport : sports) {
+            if (!targetSports.contains(sport.family())) {
+                continue;
+            }
+            LOG.debug("Processing sport: {}", sport.name());
+            due.addAll(dueLeagues(sport, schedule, now));
+        }
+
+        Map<String, List<LeagueContext>> bySport = new LinkedHashMap<>();
+        for (LeagueContext ctx : plan(due, schedule, now)) {
+            bySport.computeIfAbsent(ctx.sport().family(), family -> new ArrayList<>()).add(ctx);
+        }
+        bySport.forEach((family, leagues) -> {
+            meterRegistry.counter("leon.parser.leagues", "sport", family).increment(leagues.size());
+            scheduler.add(family, sportWeights.getOrDefault(family, 1), leagues);
+        });
+
+        return scheduler.run(ctx -> processLeague(ctx, schedule, output), maxParallelRequests);
+    }
+
+    private List<LeagueContext> dueLeagues(Sport sport, RefreshSchedule schedule, long now) {
         if (sport.regions() == null) {
             LOG.debug("No regions found for sport: {}", sport.name());
-            return Flux.empty();
+            return List.of();
+        }
+
+        List<LeagueContext> dueLeagues = collectTopLeagues(sport).stream()
+                .filter(ctx -> schedule.isDue(ctx.sport(), ctx.league(), now))
+                .toList();
+        if (!dueLeagues.isEmpty()) {
+            LOG.info("Found {} top leagues for {}", dueLeagues.size(), sport.name());
         }
+        return dueLeagues;
+    }
 
-        List<LeagueContext> topLeagues = collectTopLeagues(sport);
-        LOG.info("Found {} top leagues for {}", topLeagues.size(), sport.name());
+    static List<LeagueContext> plan(List<LeagueContext> due, RefreshSchedule schedule, long now) {
+        List<RefreshJob> jobs = new ArrayList<>(due.size());
+        for (int i = 0; i < due.size(); i++) {
+            LeagueContext ctx = due.get(i);
+            jobs.add(new RefreshJob(ctx, i, schedule.dueAt(ctx.sport(), ctx.league(), now)));
+        }
+        jobs.sort(Comparator.comparingLong(RefreshJob::dueAt).thenComparingInt(RefreshJob::order));
+        List<RefreshJob> selected = jobs.subList(0, Math.min(jobs.size(), schedule.maxLeaguesPerCycle()));
+        if (selected.size() < jobs.size()) {
+            LOG.info("Refreshing {} of {} due leagues this cycle", selected.size(), jobs.size());
+        }
 
-        return Flux.fromIterable(topLeagues)
-                .flatMap(this::processLeague, maxParallelRequests);
+        int[] orders = selected.stream().mapToInt(RefreshJob::order).sorted().toArray();
+        int[] slots = new int[due.size()];
+        for (int slot = 0; slot < orders.length; slot++) {
+            slots[orders[slot]] = slot;
+        }
+        return selected.stream().map(job -> job.ctx().withSlot(slots[job.order()])).toList();
     }
 
-    private List<LeagueContext> collectTopLeagues(Sport sport) {
+    static List<LeagueContext> collectTopLeagues(Sport sport) {
         List<LeagueContext> topLeagues = new ArrayList<>();
 
         for (Region region : sport.regions()) {
@@ -89,7 +210,7 @@ public class LeonBetsParser {
 
             for (League league : region.leagues()) {
                 if (league.top() && league.prematch() > 0) {
-                    topLeagues.add(new LeagueContext(sport, region, league));
+                    topLeagues.add(new LeagueContext(sport, region, league, 0));
                 }
             }
         }
@@ -98,83 +219,49 @@ public class LeonBetsParser {
         return topLeagues;
     }
 
-    private Mono<Void> processLeague(LeagueContext ctx) {
-        return apiService.getEventsByLeague(ctx.league().id())
-                .flatMapMany(response -> {
-                    if (response.events() == null || response.events().isEmpty()) {
+    private Mono<Void> processLeague(LeagueContext ctx, RefreshSchedule schedule,
+                                     ReorderBuffer<EventOutput> output) {
+        return apiService.streamEventsByLeague(ctx.league().id())
+                .collect(() -> new NearestKickoffs(matchesPerLeague), NearestKickoffs::offer)
+                .map(NearestKickoffs::toList)
+                .onErrorResume(e -> {
+                    leagueFailed(ctx, e);
+                    return Mono.empty();
+                })
+                .flatMapMany(events -> {
+                    schedule.onRefreshed(ctx.sport(), ctx.league(), events, System.currentTimeMillis());
+                    if (events.isEmpty()) {
                         LOG.debug("No events found for league: {}", ctx.league().name());
                         return Flux.empty();
                     }
                     LOG.info("Processing league: {} - {} ({} events)",
-                            ctx.region().name(), ctx.league().name(), response.events().size());
-                    return Flux.fromIterable(response.events()).take(matchesPerLeague);
+                            ctx.region().name(), ctx.league().name(), events.size());
+                    eventsListed.increment(events.size());
+                    return Flux.fromIterable(events);
                 })
-                .concatMap(event -> processEvent(event, ctx))
-                .then();
-    }
-
-    private Mono<Void> processEvent(Event event, LeagueContext ctx) {
-        return apiService.getEventDetails(event.id())
-                .doOnNext(fullEvent -> printEvent(fullEvent, ctx))
+                .flatMapSequential(event -> apiService.getEventDetails(ctx.league().id(), event.id())
+                        .doOnNext(fullEvent -> eventsFetched.increment())
+                        .switchIfEmpty(Mono.<Event>fromRunnable(eventsDropped::increment)), detailConcurrency)
+                .doOnNext(fullEvent -> output.offer(ctx.slot(), new EventOutput(fullEvent, ctx)))
+                .doOnTerminate(() -> output.complete(ctx.slot()))
+                .doOnCancel(() -> output.complete(ctx.slot()))
                 .then();
     }
 
-    private void printEvent(Event event, LeagueContext ctx) {
-        StringBuilder sb = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
-
-        appendEventHeader(sb, event, ctx);
-        appendMarkets(sb, event);
-
-        outputStream.print(sb);
-        outputStream.flush();
-    }
-
-    private void appendEventHeader(StringBuilder sb, Event event, LeagueContext ctx) {
-        String leagueName = ctx.region().name() + " " + ctx.league().name();
-        String kickoffStr = DATE_FORMATTER.format(Instant.ofEpochMilli(event.kickoff()));
-
-        sb.append('\n')
-          .append(ctx.sport().name())
-          .append(", ")
-          .append(leagueName)
-          .append("\n    ")
-          .append(event.name())
-          .append(", ")
-          .append(kickoffStr)
-          .append(", ")
-          .append(event.id())
-          .append('\n');
+    private void leagueFailed(LeagueContext ctx, Throwable error) {
+        LOG.warn("Skipping league {} - {} until the next cycle: {}",
+                ctx.region().name(), ctx.league().name(), error.getMessage());
+        meterRegistry.counter("leon.parser.leagues.failed", "sport", ctx.sport().family()).increment();
     }
 
-    private void appendMarkets(StringBuilder sb, Event event) {
-        if (event.markets() == null) {
-            return;
-        }
+    record LeagueContext(Sport sport, Region region, League league, int slot) {
 
-        for (Market market : event.markets()) {
-            if (!market.open()) {
-                continue;
-            }
-            sb.append("        ").append(market.name()).append('\n');
-            appendRunners(sb, market);
+        LeagueContext withSlot(int newSlot) {
+            return new LeagueContext(sport, region, league, newSlot);
         }
     }
 
-    private void appendRunners(StringBuilder sb, Market market) {
-        if (market.runners() == null) {
-            return;
-        }
-
-        for (Runner runner : market.runners()) {
-            if (!runner.open()) {
-                continue;
-            }
-            sb.append("            ")
-              .append(runner.name()).append(", ")
-              .append(runner.price()).append(", ")
-              .append(runner.id()).append('\n');
-        }
-    }
+    private record EventOutput(Event event, LeagueContext ctx) { }
 
-    private record LeagueContext(Sport sport, Region region, League league) { }
+    private record RefreshJob(LeagueContext ctx, int order, long dueAt) { }
 }
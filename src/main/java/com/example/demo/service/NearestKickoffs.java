@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Event;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+final class NearestKickoffs {
+
+    private static final Comparator<Ranked> BY_KICKOFF = Comparator.comparingLong(Ranked::kickoff)
+            .thenComparingLong(Ranked::order);
+
+    private final int limit;
+    private final PriorityQueue<Ranked> latestFirst;
+    private long offered;
+
+    NearestKickoffs(int limit) {
+        this.limit = limit;
+        this.latestFirst = new PriorityQueue<>(Math.max(1, limit), BY_KICKOFF.reversed());
+    }
+
+    void offer(Event event) {
+        Ranked ranked = new Ranked(event, event.kickoff(), offered++);
+        if (latestFirst.size() < limit) {
+            latestFirst.add(ranked);
+        } else if (limit > 0 && BY_KICKOFF.compare(ranked, latestFirst.peek()) < 0) {
+            latestFirst.poll();
+            latestFirst.add(ranked);
+        }
+    }
+
+    List<Event> toList() {
+        List<Ranked> kept = new ArrayList<>(latestFirst);
+        kept.sort(BY_KICKOFF);
+        List<Event> events = new ArrayList<>(kept.size());
+        for (Ranked ranked : kept) {
+            events.add(ranked.event());
+        }
+        return events;
+    }
+
+    private record Ranked(Event event, long kickoff, long order) { }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+public interface OddsParser {
+
+    Mono<Void> parse();
+
+    Mono<Void> parse(RefreshSchedule schedule);
+
+    Optional<SportsTree> sportsTree();
+
+    void restoreSportsTree(SportsTree tree);
+}
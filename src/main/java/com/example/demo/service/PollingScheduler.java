@@ -0,0 +1,92 @@
+package com.example.demo.service;
+
+import com.example.demo.checkpoint.CheckpointService;
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.diff.OddsDiffEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class PollingScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PollingScheduler.class);
+
+    private final OddsParser parser;
+    private final OddsDiffEngine diffEngine;
+    private final CheckpointService checkpoints;
+    private final LeonApiProperties.Parser.Polling polling;
+    private final IntervalRefreshSchedule schedule;
+    private final Timer cycleTimer;
+    private final AtomicReference<CycleStats> lastCycle = new AtomicReference<>();
+
+    public PollingScheduler(OddsParser parser, OddsDiffEngine diffEngine, CheckpointService checkpoints,
+                            IntervalRefreshSchedule schedule, LeonApiProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.parser = parser;
+        this.diffEngine = diffEngine;
+        this.checkpoints = checkpoints;
+        this.polling = properties.parser().polling();
+        this.schedule = schedule;
+        this.cycleTimer = Timer.builder("leon.poll.cycle").register(meterRegistry);
+        TimeGauge.builder("leon.poll.lag", this, TimeUnit.NANOSECONDS,
+                        s -> s.lastCycle().map(stats -> stats.lag().toNanos()).orElse(0L))
+                .register(meterRegistry);
+    }
+
+    public Flux<CycleStats> run() {
+        Duration tick = polling.tick();
+        return Flux.defer(() -> {
+            Instant start = Instant.now();
+            LOG.info("Polling started, tick {}, default interval {}", tick, polling.defaultInterval());
+            return Flux.interval(Duration.ZERO, tick)
+                    .onBackpressureDrop(n -> LOG.debug("Polling tick {} skipped, previous cycle still running", n))
+                    .concatMap(n -> runCycle(n, start.plus(tick.multipliedBy(n))), 1);
+        });
+    }
+
+    private Mono<CycleStats> runCycle(long cycle, Instant scheduledAt) {
+        return Mono.defer(() -> {
+            Instant startedAt = Instant.now();
+            int refreshedBefore = schedule.refreshCount();
+
+            return parser.parse(schedule)
+                    .onErrorResume(e -> Mono.empty())
+                    .then(checkpoints.checkpointIfDue())
+                    .then(Mono.fromSupplier(() -> {
+                        int evicted = diffEngine.evictKickedOffBefore(System.currentTimeMillis());
+                        if (evicted > 0) {
+                            LOG.debug("Evicted {} started events from odds snapshot", evicted);
+                        }
+                        CycleStats stats = new CycleStats(
+                                cycle,
+                                Duration.between(startedAt, Instant.now()),
+                                Duration.between(scheduledAt, startedAt),
+                                schedule.refreshCount() - refreshedBefore);
+                        lastCycle.set(stats);
+                        cycleTimer.record(stats.duration());
+                        if (stats.leaguesRefreshed() > 0) {
+                            LOG.info("Cycle {} refreshed {} leagues in {} ms (lag {} ms)",
+                                    stats.cycle(), stats.leaguesRefreshed(),
+                                    stats.duration().toMillis(), stats.lag().toMillis());
+                        }
+                        return stats;
+                    }));
+        });
+    }
+
+    public Optional<CycleStats> lastCycle() {
+        return Optional.ofNullable(lastCycle.get());
+    }
+}
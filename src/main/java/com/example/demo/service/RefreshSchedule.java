@@ -0,0 +1,40 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Sport;
+
+import java.util.List;
+
+public interface RefreshSchedule {
+
+    boolean isDue(Sport sport, League league, long nowMillis);
+
+    void onRefreshed(Sport sport, League league, List<Event> events, long nowMillis);
+
+    default long dueAt(Sport sport, League league, long nowMillis) {
+        return nowMillis;
+    }
+
+    default int maxLeaguesPerCycle() {
+        return Integer.MAX_VALUE;
+    }
+
+    static RefreshSchedule always() {
+        return AlwaysDue.INSTANCE;
+    }
+
+    enum AlwaysDue implements RefreshSchedule {
+        INSTANCE;
+
+        @Override
+        public boolean isDue(Sport sport, League league, long nowMillis) {
+            return true;
+        }
+
+        @Override
+        public void onRefreshed(Sport sport, League league, List<Event> events, long nowMillis) {
+            // one-shot crawl keeps no state
+        }
+    }
+}
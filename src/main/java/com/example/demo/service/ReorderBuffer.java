@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class ReorderBuffer<T> {
+
+    private final int backlogThreshold;
+    private final Consumer<T> consumer;
+    private final Map<Integer, Slot<T>> pending = new HashMap<>();
+    private final Deque<T> ready = new ArrayDeque<>();
+
+    private int head;
+    private int buffered;
+    private boolean emitting;
+
+    public ReorderBuffer(int backlogThreshold, Consumer<T> consumer) {
+        this.backlogThreshold = backlogThreshold;
+        this.consumer = consumer;
+    }
+
+    public void offer(int slot, T item) {
+        synchronized (this) {
+            if (slot == head) {
+                ready.add(item);
+            } else {
+                pending.computeIfAbsent(slot, s -> new Slot<>()).items.add(item);
+                buffered++;
+            }
+        }
+        drain();
+    }
+
+    public void complete(int slot) {
+        synchronized (this) {
+            if (slot != head) {
+                pending.computeIfAbsent(slot, s -> new Slot<>()).completed = true;
+                return;
+            }
+            advance();
+        }
+        drain();
+    }
+
+    private void advance() {
+        head++;
+        Slot<T> next = pending.remove(head);
+        while (next != null) {
+            ready.addAll(next.items);
+            buffered -= next.items.size();
+            if (!next.completed) {
+                return;
+            }
+            head++;
+            next = pending.remove(head);
+        }
+    }
+
+    private void drain() {
+        List<T> batch = new ArrayList<>();
+        synchronized (this) {
+            if (emitting) {
+                return;
+            }
+            emitting = true;
+        }
+        while (true) {
+            synchronized (this) {
+                if (ready.isEmpty()) {
+                    emitting = false;
+                    return;
+                }
+                batch.addAll(ready);
+                ready.clear();
+            }
+            try {
+                batch.forEach(consumer);
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    emitting = false;
+                }
+                throw e;
+            }
+            batch.clear();
+        }
+    }
+
+    public synchronized boolean isBacklogged() {
+        return buffered >= backlogThreshold;
+    }
+
+    public synchronized int buffered() {
+        return buffered;
+    }
+
+    private static final class Slot<T> {
+
+        private final List<T> items = new ArrayList<>();
+        private boolean completed;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class RequestHedger {
+
+    private static final int HISTORY_SIZE = 1024;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final double MAX_TOKENS = 10;
+
+    private final Object lock = new Object();
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budget;
+    private final long[] latencies = new long[HISTORY_SIZE];
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+
+    private long samples;
+    private int next;
+    private long delayNanos = -1;
+    private double tokens;
+
+    public RequestHedger(LeonApiProperties.Api.Hedge config) {
+        this.enabled = config.enabled();
+        this.percentile = config.percentile();
+        this.minDelayNanos = config.minDelay().toNanos();
+        this.budget = config.budget();
+    }
+
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            requests.increment();
+            long delay = admit();
+            Mono<T> primary = Mono.defer(call);
+            if (delay < 0) {
+                return primary;
+            }
+
+            Mono<T> backup = Mono.delay(Duration.ofNanos(delay))
+                    .flatMap(tick -> {
+                        if (!spendToken()) {
+                            return Mono.never();
+                        }
+                        hedges.increment();
+                        return Mono.defer(call).doOnNext(value -> wins.increment());
+                    });
+            return Mono.firstWithSignal(primary, backup);
+        });
+    }
+
+    public <T> Mono<T> measure(Mono<T> exchange) {
+        if (!enabled) {
+            return exchange;
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return exchange.doOnNext(value -> record(System.nanoTime() - start));
+        });
+    }
+
+    private long admit() {
+        synchronized (lock) {
+            tokens = Math.min(MAX_TOKENS, tokens + budget);
+            return delayNanos;
+        }
+    }
+
+    private boolean spendToken() {
+        synchronized (lock) {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private void record(long latencyNanos) {
+        synchronized (lock) {
+            latencies[next] = latencyNanos;
+            next = (next + 1) % HISTORY_SIZE;
+            samples++;
+            if (samples >= MIN_SAMPLES && (delayNanos < 0 || samples % RECOMPUTE_EVERY == 0)) {
+                long[] window = Arrays.copyOf(latencies, (int) Math.min(samples, HISTORY_SIZE));
+                Arrays.sort(window);
+                int index = Math.min(window.length - 1, (int) Math.ceil(percentile * window.length) - 1);
+                delayNanos = Math.max(minDelayNanos, window[index]);
+            }
+        }
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats(requests.sum(), hedges.sum(), wins.sum(),
+                    delayNanos < 0 ? Duration.ZERO : Duration.ofNanos(delayNanos));
+        }
+    }
+
+    public record Stats(
+            long requests,
+            long hedges,
+            long wins,
+            Duration delay
+    ) { }
+}
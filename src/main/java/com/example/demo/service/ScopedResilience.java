@@ -0,0 +1,196 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public class ScopedResilience {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScopedResilience.class);
+
+    private static final String LEAGUE_PREFIX = "league-";
+    private static final String DETAILS_PREFIX = "event-all-";
+
+    private final boolean enabled;
+    private final int maxScopes;
+    private final long idleTimeoutNanos;
+    private final int endpointMaxCalls;
+    private final int leagueMaxCalls;
+    private final LongSupplier clock;
+    private final CircuitBreakerRegistry breakers;
+    private final BulkheadRegistry bulkheads;
+    private final LinkedHashMap<String, Long> lastUsed = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    public ScopedResilience(LeonApiProperties.Api.CircuitBreaker config, MeterRegistry meterRegistry) {
+        this(config, meterRegistry, System::nanoTime);
+    }
+
+    ScopedResilience(LeonApiProperties.Api.CircuitBreaker config, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.enabled = config.enabled();
+        this.maxScopes = config.maxScopes();
+        this.idleTimeoutNanos = config.scopeIdleTimeout().toNanos();
+        this.endpointMaxCalls = config.endpointMaxConcurrentCalls();
+        this.leagueMaxCalls = config.leagueMaxConcurrentCalls();
+        this.clock = clock;
+        this.breakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(config.failureRateThreshold())
+                .slidingWindowSize(config.slidingWindowSize())
+                .waitDurationInOpenState(config.waitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(config.permittedNumberOfCallsInHalfOpenState())
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        bulkheads.getEventPublisher().onEntryAdded(event -> event.getAddedEntry().getEventPublisher()
+                .onCallRejected(rejected -> rejections.incrementAndGet()));
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(breakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        Gauge.builder("leon.api.resilience.scopes", this, ScopedResilience::size).register(meterRegistry);
+        FunctionCounter.builder("leon.api.resilience.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("leon.api.resilience.rejections", rejections, AtomicLong::get).register(meterRegistry);
+        breakers.getEventPublisher().onEntryAdded(event -> trackStateTime(event.getAddedEntry(), meterRegistry));
+    }
+
+    public static String league(long leagueId) {
+        return LEAGUE_PREFIX + leagueId;
+    }
+
+    public static String details(long leagueId) {
+        return DETAILS_PREFIX + leagueId;
+    }
+
+    private void trackStateTime(CircuitBreaker cb, MeterRegistry meterRegistry) {
+        AtomicLong stateEnteredAt = new AtomicLong(System.nanoTime());
+        cb.getEventPublisher()
+                .onStateTransition(event -> {
+                    CircuitBreaker.State from = event.getStateTransition().getFromState();
+                    long now = System.nanoTime();
+                    Timer.builder("leon.api.circuitbreaker.state.time")
+                            .tag("state", from.name().toLowerCase(Locale.ROOT))
+                            .register(meterRegistry)
+                            .record(now - stateEnteredAt.getAndSet(now), TimeUnit.NANOSECONDS);
+                    LOG.warn("Circuit breaker {} state changed: {} -> {}",
+                            cb.getName(), from, event.getStateTransition().getToState());
+                });
+    }
+
+    public <T> Mono<T> protect(String scope, Mono<T> mono) {
+        if (!enabled) {
+            return mono;
+        }
+        return Mono.defer(() -> {
+            Bulkhead bulkhead = acquire(scope);
+            Mono<T> guarded = bulkhead != null ? mono.transformDeferred(BulkheadOperator.of(bulkhead)) : mono;
+            return guarded.transformDeferred(CircuitBreakerOperator.of(breakers.circuitBreaker(scope)));
+        });
+    }
+
+    public <T> Flux<T> protect(String scope, Flux<T> flux) {
+        if (!enabled) {
+            return flux;
+        }
+        return Flux.defer(() -> {
+            Bulkhead bulkhead = acquire(scope);
+            Flux<T> guarded = bulkhead != null ? flux.transformDeferred(BulkheadOperator.of(bulkhead)) : flux;
+            return guarded.transformDeferred(CircuitBreakerOperator.of(breakers.circuitBreaker(scope)));
+        });
+    }
+
+    private Bulkhead acquire(String scope) {
+        touch(scope);
+        int limit = scope.startsWith(LEAGUE_PREFIX) ? leagueMaxCalls : endpointMaxCalls;
+        if (limit <= 0) {
+            return null;
+        }
+        return bulkheads.bulkhead(scope, () -> BulkheadConfig.custom()
+                .maxConcurrentCalls(limit)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    private void touch(String scope) {
+        List<String> evicted;
+        synchronized (lastUsed) {
+            long now = clock.getAsLong();
+            lastUsed.put(scope, now);
+            evicted = evict(now);
+        }
+        for (String name : evicted) {
+            breakers.remove(name);
+            bulkheads.remove(name);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private List<String> evict(long now) {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> it = lastUsed.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            boolean overflow = lastUsed.size() > maxScopes;
+            if (!overflow && now - eldest.getValue() < idleTimeoutNanos) {
+                break;
+            }
+            it.remove();
+            evicted.add(eldest.getKey());
+        }
+        return evicted;
+    }
+
+    public int size() {
+        synchronized (lastUsed) {
+            return lastUsed.size();
+        }
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public long rejections() {
+        return rejections.get();
+    }
+
+    public Map<String, CircuitBreaker.State> states() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        breakers.getAllCircuitBreakers().forEach(cb -> states.put(cb.getName(), cb.getState()));
+        return states;
+    }
+
+    public CircuitBreaker.State state(String scope) {
+        return breakers.find(scope).map(CircuitBreaker::getState).orElse(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean();
+            Mono<V> flight = inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return newFlight(k, call);
+            });
+
+            calls.increment();
+            if (!leader.get()) {
+                coalesced.increment();
+            }
+            return flight;
+        });
+    }
+
+    private Mono<V> newFlight(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        // Leave before the result is delivered so callers reacting to it start a fresh call
+        Runnable leave = () -> inFlight.remove(key, self.get());
+        Mono<V> flight = Mono.defer(call)
+                .doOnSuccess(value -> leave.run())
+                .doOnError(e -> leave.run())
+                .doOnCancel(leave)
+                .share();
+        self.set(flight);
+        return flight;
+    }
+
+    public Stats stats() {
+        return new Stats(name, calls.sum(), coalesced.sum(), inFlight.size());
+    }
+
+    public record Stats(
+            String name,
+            long calls,
+            long coalesced,
+            int inFlight
+    ) { }
+}
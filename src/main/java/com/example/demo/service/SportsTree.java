@@ -0,0 +1,10 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Sport;
+
+import java.util.List;
+
+public record SportsTree(
+        List<Sport> sports,
+        long fetchedAt
+) { }
@@ -0,0 +1,257 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.diff.OddsDiffEngine;
+import com.example.demo.model.Event;
+import com.example.demo.model.Sport;
+import com.example.demo.output.EventFormatter;
+import com.example.demo.output.OutputSink;
+import com.example.demo.output.RecordBuffer;
+import com.example.demo.store.TickStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class VirtualThreadParser implements OddsParser, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadParser.class);
+
+    private static final int RECORD_BUFFER_INITIAL_CAPACITY = 4096;
+
+    private final BlockingLeonApiClient client;
+    private final int maxParallelRequests;
+    private final int matchesPerLeague;
+    private final int detailConcurrency;
+    private final Set<String> targetSports;
+    private final Map<String, Integer> sportWeights;
+    private final OutputSink outputSink;
+    private final EventPrinter printer;
+    private final MeterRegistry meterRegistry;
+    private final Counter eventsListed;
+    private final Counter eventsFetched;
+    private final Counter eventsDropped;
+    private final long sportsTreeTtlMillis;
+    private final long restoredTreeTtlMillis;
+    private volatile SportsTree restoredTree;
+    private final AtomicReference<SportsTree> sportsTree = new AtomicReference<>();
+
+    public VirtualThreadParser(BlockingLeonApiClient client, LeonApiProperties properties, OddsDiffEngine diffEngine,
+                               OutputSink outputSink, EventFormatter formatter, TickStore tickStore,
+                               MeterRegistry meterRegistry) {
+        this.client = client;
+        this.maxParallelRequests = properties.maxInFlightRequests();
+        this.matchesPerLeague = properties.parser().matchesPerLeague();
+        this.detailConcurrency = properties.parser().detailConcurrency();
+        this.targetSports = Set.copyOf(properties.parser().targetSports());
+        this.sportWeights = properties.parser().sportWeights();
+        this.outputSink = outputSink;
+        this.printer = new EventPrinter(outputSink, formatter, tickStore, diffEngine,
+                properties.output().changesOnly(), meterRegistry.counter("leon.parser.events", "stage", "printed"));
+        this.meterRegistry = meterRegistry;
+        this.eventsListed = meterRegistry.counter("leon.parser.events", "stage", "listed");
+        this.eventsFetched = meterRegistry.counter("leon.parser.events", "stage", "fetched");
+        this.eventsDropped = meterRegistry.counter("leon.parser.events", "stage", "dropped");
+        LeonApiProperties.Parser.Polling polling = properties.parser().polling();
+        this.sportsTreeTtlMillis = polling.enabled() ? polling.sportsTreeInterval().toMillis() : 0;
+        this.restoredTreeTtlMillis = polling.enabled()
+                ? sportsTreeTtlMillis
+                : properties.checkpoint().maxAge().toMillis();
+    }
+
+    private List<Sport> sports() {
+        SportsTree tree = sportsTree.get();
+        if (tree != null && System.currentTimeMillis() - tree.fetchedAt() < ttlMillis(tree)) {
+            return tree.sports();
+        }
+        List<Sport> sports = client.getSports();
+        if (!sports.isEmpty()) {
+            sportsTree.set(new SportsTree(sports, System.currentTimeMillis()));
+        }
+        return sports;
+    }
+
+    @Override
+    public Optional<SportsTree> sportsTree() {
+        return Optional.ofNullable(sportsTree.get());
+    }
+
+    @Override
+    public void restoreSportsTree(SportsTree tree) {
+        if (sportsTree.compareAndSet(null, tree)) {
+            restoredTree = tree;
+        }
+    }
+
+    private long ttlMillis(SportsTree tree) {
+        return tree == restoredTree ? restoredTreeTtlMillis : sportsTreeTtlMillis;
+    }
+
+    @Override
+    public Mono<Void> parse() {
+        LOG.info("Starting virtual-thread parser for sports: {}", targetSports);
+        return parse(RefreshSchedule.always());
+    }
+
+    @Override
+    public Mono<Void> parse(RefreshSchedule schedule) {
+        return Mono.fromRunnable(() -> crawl(schedule))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then()
+                .doOnSuccess(v -> LOG.info("Parsing completed successfully"))
+                .doOnError(e -> LOG.error("Parsing failed", e));
+    }
+
+    private void crawl(RefreshSchedule schedule) {
+        List<Sport> sports = sports();
+        LOG.info("Fetched {} sports from API", sports.size());
+
+        long now = System.currentTimeMillis();
+        List<LeonBetsParser.LeagueContext> due = new ArrayList<>();
+        for (Sport sport : sports) {
+            if (!targetSports.contains(sport.family()) || sport.regions() == null) {
+                continue;
+            }
+            List<LeonBetsParser.LeagueContext> dueLeagues = LeonBetsParser.collectTopLeagues(sport).stream()
+                    .filter(ctx -> schedule.isDue(ctx.sport(), ctx.league(), now))
+                    .toList();
+            if (!dueLeagues.isEmpty()) {
+                LOG.info("Found {} top leagues for {}", dueLeagues.size(), sport.name());
+            }
+            due.addAll(dueLeagues);
+        }
+
+        List<LeonBetsParser.LeagueContext> planned = LeonBetsParser.plan(due, schedule, now);
+        Map<String, Deque<LeonBetsParser.LeagueContext>> bySport = new LinkedHashMap<>();
+        for (LeonBetsParser.LeagueContext ctx : planned) {
+            bySport.computeIfAbsent(ctx.sport().family(), family -> new ArrayDeque<>()).add(ctx);
+        }
+        bySport.forEach((family, queue) ->
+                meterRegistry.counter("leon.parser.leagues", "sport", family).increment(queue.size()));
+        List<LeonBetsParser.LeagueContext> leagues = planned.stream()
+                .sorted(Comparator.comparingInt(LeonBetsParser.LeagueContext::slot))
+                .toList();
+
+        List<CompletableFuture<List<Event>>> results = new ArrayList<>(leagues.size());
+        for (int i = 0; i < leagues.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+
+        RecordBuffer buffer = new RecordBuffer(RECORD_BUFFER_INITIAL_CAPACITY);
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            scope.submit(() -> {
+                try {
+                    dispatch(bySport, schedule, scope, results);
+                } catch (RuntimeException | Error e) {
+                    results.forEach(result -> result.completeExceptionally(e));
+                }
+            });
+            for (LeonBetsParser.LeagueContext ctx : leagues) {
+                for (Event event : results.get(ctx.slot()).join()) {
+                    printer.print(event, ctx, buffer);
+                }
+            }
+        }
+        outputSink.flush();
+    }
+
+    private void dispatch(Map<String, Deque<LeonBetsParser.LeagueContext>> bySport, RefreshSchedule schedule,
+                          ExecutorService scope, List<CompletableFuture<List<Event>>> results) {
+        Semaphore permits = new Semaphore(maxParallelRequests);
+        while (!bySport.isEmpty()) {
+            Iterator<Map.Entry<String, Deque<LeonBetsParser.LeagueContext>>> sports = bySport.entrySet().iterator();
+            while (sports.hasNext()) {
+                Map.Entry<String, Deque<LeonBetsParser.LeagueContext>> entry = sports.next();
+                Deque<LeonBetsParser.LeagueContext> queue = entry.getValue();
+                for (int i = sportWeights.getOrDefault(entry.getKey(), 1); i > 0 && !queue.isEmpty(); i--) {
+                    LeonBetsParser.LeagueContext ctx = queue.poll();
+                    CompletableFuture<List<Event>> result = results.get(ctx.slot());
+                    permits.acquireUninterruptibly();
+                    scope.submit(() -> {
+                        try {
+                            result.complete(processLeague(ctx, schedule));
+                        } catch (RuntimeException e) {
+                            leagueFailed(ctx, e);
+                            result.complete(List.of());
+                        } catch (Error e) {
+                            result.completeExceptionally(e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+                if (queue.isEmpty()) {
+                    sports.remove();
+                }
+            }
+        }
+    }
+
+    private List<Event> processLeague(LeonBetsParser.LeagueContext ctx, RefreshSchedule schedule) {
+        List<Event> events = client.eventsByLeague(ctx.league().id(), matchesPerLeague);
+        schedule.onRefreshed(ctx.sport(), ctx.league(), events, System.currentTimeMillis());
+        if (events.isEmpty()) {
+            LOG.debug("No events found for league: {}", ctx.league().name());
+            return List.of();
+        }
+        LOG.info("Processing league: {} - {} ({} events)", ctx.region().name(), ctx.league().name(), events.size());
+        eventsListed.increment(events.size());
+
+        Semaphore permits = new Semaphore(detailConcurrency);
+        List<Future<Optional<Event>>> details = new ArrayList<>(events.size());
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Event event : events) {
+                details.add(scope.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        return client.eventDetails(event.id());
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        List<Event> fetched = new ArrayList<>(details.size());
+        for (Future<Optional<Event>> detail : details) {
+            Optional<Event> event = detail.state() == Future.State.SUCCESS ? detail.resultNow() : Optional.empty();
+            if (event.isPresent()) {
+                eventsFetched.increment();
+                fetched.add(event.get());
+            } else {
+                eventsDropped.increment();
+            }
+        }
+        return fetched;
+    }
+
+    private void leagueFailed(LeonBetsParser.LeagueContext ctx, Throwable error) {
+        LOG.warn("Skipping league {} - {} until the next cycle: {}",
+                ctx.region().name(), ctx.league().name(), error.getMessage());
+        meterRegistry.counter("leon.parser.leagues.failed", "sport", ctx.sport().family()).increment();
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
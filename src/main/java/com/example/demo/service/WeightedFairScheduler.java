@@ -0,0 +1,155 @@
+package com.example.demo.service;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+public class WeightedFairScheduler<T> {
+
+    private final Map<String, Lane<T>> lanes = new LinkedHashMap<>();
+    private final Comparator<T> order;
+    private final BooleanSupplier backlogged;
+
+    public WeightedFairScheduler() {
+        this(null, () -> false);
+    }
+
+    public WeightedFairScheduler(Comparator<T> order, BooleanSupplier backlogged) {
+        this.order = order;
+        this.backlogged = backlogged;
+    }
+
+    public synchronized void add(String key, int weight, List<T> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Lane<T> lane = lanes.computeIfAbsent(key, k -> new Lane<>(Math.max(1, weight), order));
+        items.forEach(lane::add);
+    }
+
+    public <R> Flux<R> run(Function<T, Publisher<R>> task, int concurrency) {
+        return Flux.<Pick<T>>generate(sink -> {
+            Pick<T> next = next();
+            if (next == null) {
+                sink.complete();
+            } else {
+                sink.next(next);
+            }
+        }).flatMap(pick -> Flux.from(task.apply(pick.item()))
+                .doOnTerminate(() -> finished(pick.lane()))
+                .doOnCancel(() -> finished(pick.lane())), concurrency);
+    }
+
+    private synchronized Pick<T> next() {
+        boolean inOrder = order != null && backlogged.getAsBoolean();
+        Lane<T> best = null;
+        for (Lane<T> lane : lanes.values()) {
+            if (!lane.isEmpty() && (best == null || precedes(lane, best, inOrder))) {
+                best = lane;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        best.inFlight++;
+        best.started++;
+        return new Pick<>(best, inOrder ? best.takeEarliest() : best.takeFirst());
+    }
+
+    private boolean precedes(Lane<T> lane, Lane<T> other, boolean inOrder) {
+        if (inOrder) {
+            return order.compare(lane.earliest(), other.earliest()) < 0;
+        }
+        return lane.precedes(other);
+    }
+
+    private synchronized void finished(Lane<T> lane) {
+        lane.inFlight--;
+    }
+
+    private static final class Lane<T> {
+
+        private final int weight;
+        private final Deque<Entry<T>> arrival = new ArrayDeque<>();
+        private final PriorityQueue<Entry<T>> byOrder;
+        private int pending;
+        private int inFlight;
+        private long started;
+
+        private Lane(int weight, Comparator<T> order) {
+            this.weight = weight;
+            this.byOrder = order == null ? null : new PriorityQueue<>(Comparator.comparing(Entry::item, order));
+        }
+
+        private void add(T item) {
+            Entry<T> entry = new Entry<>(item);
+            arrival.addLast(entry);
+            if (byOrder != null) {
+                byOrder.add(entry);
+            }
+            pending++;
+        }
+
+        private boolean isEmpty() {
+            return pending == 0;
+        }
+
+        private T earliest() {
+            while (byOrder.peek().taken) {
+                byOrder.poll();
+            }
+            return byOrder.peek().item();
+        }
+
+        private T takeEarliest() {
+            earliest();
+            return take(byOrder.poll());
+        }
+
+        private T takeFirst() {
+            while (arrival.peekFirst().taken) {
+                arrival.pollFirst();
+            }
+            return take(arrival.pollFirst());
+        }
+
+        private T take(Entry<T> entry) {
+            entry.taken = true;
+            pending--;
+            return entry.item();
+        }
+
+        private boolean precedes(Lane<T> other) {
+            int byLoad = Long.compare((long) inFlight * other.weight, (long) other.inFlight * weight);
+            if (byLoad != 0) {
+                return byLoad < 0;
+            }
+            return started * other.weight < other.started * weight;
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T item;
+        private boolean taken;
+
+        private Entry(T item) {
+            this.item = item;
+        }
+
+        private T item() {
+            return item;
+        }
+    }
+
+    private record Pick<T>(Lane<T> lane, T item) { }
+}
@@ -0,0 +1,273 @@
+package com.example.demo.store;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class SegmentedTickStore implements TickStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentedTickStore.class);
+
+    private static final String SEGMENT_PREFIX = "ticks-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("ticks-\\d+\\.seg");
+    private static final Pending CLOSE = new Pending(null, 0);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long rollIntervalMillis;
+    private final long retentionMillis;
+    private final Deque<TickSegment> sealed = new ArrayDeque<>();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Object progress = new Object();
+    private final Thread writer;
+    private TickSegment active;
+    private long nextSegmentId;
+    private long written;
+    private volatile boolean closed;
+
+    public SegmentedTickStore(Path directory, int segmentBytes, Duration rollInterval, Duration retention)
+            throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.rollIntervalMillis = rollInterval.toMillis();
+        this.retentionMillis = retention.toMillis();
+        Files.createDirectories(directory);
+        loadSegments();
+        this.writer = new Thread(this::run, "tick-store-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void append(Event event, long timestamp) {
+        if (closed || !writer.isAlive()) {
+            throw new IllegalStateException("Tick store is closed");
+        }
+        queue.add(new Pending(event, timestamp));
+        enqueued.incrementAndGet();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Pending pending = queue.take();
+                if (pending == CLOSE) {
+                    return;
+                }
+                try {
+                    write(pending.event(), pending.timestamp());
+                } catch (RuntimeException e) {
+                    LOG.error("Failed to store ticks of event {}", pending.event().id(), e);
+                }
+                synchronized (progress) {
+                    written++;
+                    progress.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+    }
+
+    private void awaitWritten() {
+        long target = enqueued.get();
+        synchronized (progress) {
+            while (written < target && writer.isAlive()) {
+                try {
+                    progress.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized void write(Event event, long timestamp) {
+        if (event.markets() == null) {
+            return;
+        }
+        for (Market market : event.markets()) {
+            if (market.runners() == null) {
+                continue;
+            }
+            for (Runner runner : market.runners()) {
+                append(timestamp, event.id(), runner.id(), runner.price(), market.open() && runner.open());
+            }
+        }
+    }
+
+    synchronized void append(long timestamp, long eventId, long runnerId, double price, boolean open) {
+        if (active == null || timestamp - active.baseTimestamp() >= rollIntervalMillis) {
+            roll(timestamp);
+        }
+        if (!active.append(timestamp, eventId, runnerId, price, open)) {
+            roll(timestamp);
+            active.append(timestamp, eventId, runnerId, price, open);
+        }
+    }
+
+    @Override
+    public List<Tick> runnerTicks(long runnerId, long fromMillis, long toMillis) {
+        awaitWritten();
+        return collectRunner(runnerId, fromMillis, toMillis);
+    }
+
+    private synchronized List<Tick> collectRunner(long runnerId, long fromMillis, long toMillis) {
+        List<Tick> ticks = new ArrayList<>();
+        for (TickSegment segment : segments()) {
+            segment.collectRunner(runnerId, fromMillis, toMillis, ticks);
+        }
+        return ticks;
+    }
+
+    @Override
+    public List<Tick> eventTicks(long eventId, long fromMillis, long toMillis) {
+        awaitWritten();
+        return collectEvent(eventId, fromMillis, toMillis);
+    }
+
+    private synchronized List<Tick> collectEvent(long eventId, long fromMillis, long toMillis) {
+        List<Tick> ticks = new ArrayList<>();
+        for (TickSegment segment : segments()) {
+            segment.collectEvent(eventId, fromMillis, toMillis, ticks);
+        }
+        ticks.sort(Comparator.comparingLong(Tick::timestamp));
+        return ticks;
+    }
+
+    public synchronized Stats stats() {
+        long ticks = 0;
+        long bytes = 0;
+        List<TickSegment> all = segments();
+        for (TickSegment segment : all) {
+            ticks += segment.tickCount();
+            bytes += segment.bytesUsed();
+        }
+        return new Stats(all.size(), ticks, bytes);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            queue.add(CLOSE);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeSegments();
+    }
+
+    private synchronized void closeSegments() {
+        for (TickSegment segment : segments()) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close tick segment {}: {}", segment.path(), e.getMessage());
+            }
+        }
+        sealed.clear();
+        active = null;
+    }
+
+    private List<TickSegment> segments() {
+        List<TickSegment> all = new ArrayList<>(sealed);
+        if (active != null) {
+            all.add(active);
+        }
+        return all;
+    }
+
+    private void roll(long timestamp) {
+        if (active != null) {
+            try {
+                active.seal();
+            } catch (IOException e) {
+                LOG.warn("Failed to seal tick segment {}: {}", active.path(), e.getMessage());
+            }
+            sealed.addLast(active);
+        }
+        evictExpired(timestamp);
+
+        Path path = directory.resolve(String.format(Locale.ROOT, "%s%012d%s",
+                SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        try {
+            active = TickSegment.create(path, segmentBytes, timestamp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create tick segment " + path, e);
+        }
+        LOG.debug("Rolled tick store to segment {}", path.getFileName());
+    }
+
+    private void evictExpired(long now) {
+        while (!sealed.isEmpty() && sealed.peekFirst().lastTimestamp() < now - retentionMillis) {
+            TickSegment expired = sealed.removeFirst();
+            try {
+                expired.close();
+                Files.deleteIfExists(expired.path());
+                LOG.debug("Deleted expired tick segment {}", expired.path().getFileName());
+            } catch (IOException e) {
+                LOG.warn("Failed to delete tick segment {}: {}", expired.path(), e.getMessage());
+            }
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(this::isSegment).sorted().toList();
+        }
+        for (Path path : paths) {
+            sealed.addLast(TickSegment.open(path));
+            nextSegmentId = Math.max(nextSegmentId, segmentId(path) + 1);
+        }
+        if (!paths.isEmpty()) {
+            LOG.info("Loaded {} tick segments from {}", paths.size(), directory);
+        }
+    }
+
+    private boolean isSegment(Path path) {
+        return SEGMENT_NAME.matcher(path.getFileName().toString()).matches();
+    }
+
+    private long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Pending(Event event, long timestamp) { }
+
+    public record Stats(
+            int segments,
+            long ticks,
+            long bytesUsed
+    ) { }
+}
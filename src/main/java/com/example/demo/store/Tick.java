@@ -0,0 +1,9 @@
+package com.example.demo.store;
+
+public record Tick(
+        long timestamp,
+        long eventId,
+        long runnerId,
+        double price,
+        boolean open
+) { }
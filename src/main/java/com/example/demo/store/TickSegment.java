@@ -0,0 +1,303 @@
+package com.example.demo.store;
+
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+final class TickSegment {
+
+    static final int MAGIC = 0x4C544B31;
+    static final int HEADER_BYTES = 16;
+
+    private static final int LIMIT_OFFSET = 4;
+    private static final int BASE_TIMESTAMP_OFFSET = 8;
+    private static final int MAX_RECORD_BYTES = 6 * Varint.MAX_LONG_BYTES + 1;
+    private static final int NO_PRICE_BITS = 64;
+    private static final int OPEN_FLAG = 0x80;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long baseTimestamp;
+    private final LongObjectMap<RunnerState> runners = new LongObjectHashMap<>();
+    private final LongObjectMap<List<RunnerState>> events = new LongObjectHashMap<>();
+    private final List<RunnerState> byLocalId = new ArrayList<>();
+    private MappedByteBuffer buffer;
+    private int limit;
+    private long lastTimestamp;
+    private long tickCount;
+
+    private TickSegment(Path path, FileChannel channel, MappedByteBuffer buffer, long baseTimestamp) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.baseTimestamp = baseTimestamp;
+        this.lastTimestamp = baseTimestamp;
+    }
+
+    static TickSegment create(Path path, int size, long baseTimestamp) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(LIMIT_OFFSET, HEADER_BYTES);
+            buffer.putLong(BASE_TIMESTAMP_OFFSET, baseTimestamp);
+            buffer.position(HEADER_BYTES);
+            return new TickSegment(path, channel, buffer, baseTimestamp);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static TickSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not a tick segment: " + path);
+            }
+            TickSegment segment = new TickSegment(path, channel, null, mapped.getLong(BASE_TIMESTAMP_OFFSET));
+            segment.limit = mapped.getInt(LIMIT_OFFSET);
+            segment.rebuildIndex(mapped);
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    boolean append(long timestamp, long eventId, long runnerId, double price, boolean open) {
+        if (buffer == null || buffer.remaining() < MAX_RECORD_BYTES) {
+            return false;
+        }
+
+        int offset = buffer.position();
+        long priceBits = Double.doubleToRawLongBits(price);
+        RunnerState state = runners.get(runnerId);
+
+        if (state == null) {
+            state = register(runnerId, eventId);
+            Varint.putLong(buffer, state.localId);
+            Varint.putLong(buffer, 0);
+            Varint.putLong(buffer, runnerId);
+            Varint.putLong(buffer, eventId);
+            Varint.putZigZag(buffer, timestamp - baseTimestamp);
+            putPrice(priceBits, open);
+        } else {
+            Varint.putLong(buffer, state.localId);
+            Varint.putLong(buffer, offset - state.lastOffset);
+            Varint.putZigZag(buffer, timestamp - state.lastTimestamp);
+            putPrice(priceBits ^ state.lastPriceBits, open);
+        }
+
+        state.lastOffset = offset;
+        state.lastTimestamp = timestamp;
+        state.lastPriceBits = priceBits;
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+        tickCount++;
+        buffer.putInt(LIMIT_OFFSET, buffer.position());
+        return true;
+    }
+
+    void collectRunner(long runnerId, long fromMillis, long toMillis, List<Tick> out) {
+        RunnerState state = runners.get(runnerId);
+        if (state != null && overlaps(fromMillis, toMillis)) {
+            collect(state, fromMillis, toMillis, out);
+        }
+    }
+
+    void collectEvent(long eventId, long fromMillis, long toMillis, List<Tick> out) {
+        List<RunnerState> eventRunners = events.get(eventId);
+        if (eventRunners == null || !overlaps(fromMillis, toMillis)) {
+            return;
+        }
+        for (RunnerState state : eventRunners) {
+            collect(state, fromMillis, toMillis, out);
+        }
+    }
+
+    void force() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    void seal() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        buffer.force();
+        limit = bytesUsed();
+        buffer = null;
+        channel.truncate(limit);
+    }
+
+    void close() throws IOException {
+        try {
+            force();
+            buffer = null;
+        } finally {
+            channel.close();
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long baseTimestamp() {
+        return baseTimestamp;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    long tickCount() {
+        return tickCount;
+    }
+
+    int bytesUsed() {
+        return buffer != null ? buffer.getInt(LIMIT_OFFSET) : limit;
+    }
+
+    private boolean overlaps(long fromMillis, long toMillis) {
+        return baseTimestamp <= toMillis && lastTimestamp >= fromMillis;
+    }
+
+    private void collect(RunnerState state, long fromMillis, long toMillis, List<Tick> out) {
+        ByteBuffer view = buffer != null ? buffer.duplicate() : ByteBuffer.allocate(MAX_RECORD_BYTES);
+        List<Tick> ticks = new ArrayList<>();
+        int offset = state.lastOffset;
+        long timestamp = state.lastTimestamp;
+        long priceBits = state.lastPriceBits;
+
+        while (timestamp >= fromMillis) {
+            seek(view, offset);
+            Varint.getLong(view);
+            long back = Varint.getLong(view);
+            if (back == 0) {
+                Varint.getLong(view);
+                Varint.getLong(view);
+            }
+            long timestampDelta = Varint.getZigZag(view);
+            int header = view.get() & 0xFF;
+            long xor = getPrice(view, header);
+
+            if (timestamp <= toMillis) {
+                ticks.add(new Tick(timestamp, state.eventId, state.runnerId,
+                        Double.longBitsToDouble(priceBits), (header & OPEN_FLAG) != 0));
+            }
+            if (back == 0) {
+                break;
+            }
+            offset -= (int) back;
+            timestamp -= timestampDelta;
+            priceBits ^= xor;
+        }
+
+        Collections.reverse(ticks);
+        out.addAll(ticks);
+    }
+
+    private void seek(ByteBuffer view, int offset) {
+        if (buffer != null) {
+            view.position(offset);
+            return;
+        }
+        view.clear();
+        try {
+            channel.read(view, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read tick segment " + path, e);
+        }
+        view.flip();
+    }
+
+    private void rebuildIndex(ByteBuffer mapped) {
+        ByteBuffer view = mapped.duplicate();
+        view.position(HEADER_BYTES);
+
+        while (view.position() < limit) {
+            int offset = view.position();
+            int localId = (int) Varint.getLong(view);
+            long back = Varint.getLong(view);
+            RunnerState state;
+            long timestamp;
+            long priceBits;
+
+            if (back == 0) {
+                long runnerId = Varint.getLong(view);
+                long eventId = Varint.getLong(view);
+                state = register(runnerId, eventId);
+                timestamp = baseTimestamp + Varint.getZigZag(view);
+                priceBits = getPrice(view, view.get() & 0xFF);
+            } else {
+                state = byLocalId.get(localId);
+                timestamp = state.lastTimestamp + Varint.getZigZag(view);
+                priceBits = state.lastPriceBits ^ getPrice(view, view.get() & 0xFF);
+            }
+
+            state.lastOffset = offset;
+            state.lastTimestamp = timestamp;
+            state.lastPriceBits = priceBits;
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            tickCount++;
+        }
+    }
+
+    private RunnerState register(long runnerId, long eventId) {
+        RunnerState state = new RunnerState(byLocalId.size(), runnerId, eventId);
+        byLocalId.add(state);
+        runners.put(runnerId, state);
+        List<RunnerState> eventRunners = events.get(eventId);
+        if (eventRunners == null) {
+            eventRunners = new ArrayList<>();
+            events.put(eventId, eventRunners);
+        }
+        eventRunners.add(state);
+        return state;
+    }
+
+    private void putPrice(long xor, boolean open) {
+        int trailingZeros = Long.numberOfTrailingZeros(xor);
+        buffer.put((byte) (trailingZeros | (open ? OPEN_FLAG : 0)));
+        if (trailingZeros < NO_PRICE_BITS) {
+            Varint.putLong(buffer, xor >>> trailingZeros);
+        }
+    }
+
+    private static long getPrice(ByteBuffer view, int header) {
+        int trailingZeros = header & ~OPEN_FLAG;
+        if (trailingZeros >= NO_PRICE_BITS) {
+            return 0;
+        }
+        return Varint.getLong(view) << trailingZeros;
+    }
+
+    private static final class RunnerState {
+        private final int localId;
+        private final long runnerId;
+        private final long eventId;
+        private int lastOffset;
+        private long lastTimestamp;
+        private long lastPriceBits;
+
+        private RunnerState(int localId, long runnerId, long eventId) {
+            this.localId = localId;
+            this.runnerId = runnerId;
+            this.eventId = eventId;
+        }
+    }
+}
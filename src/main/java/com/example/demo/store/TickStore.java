@@ -0,0 +1,45 @@
+package com.example.demo.store;
+
+import com.example.demo.model.Event;
+
+import java.util.List;
+
+public interface TickStore extends AutoCloseable {
+
+    void append(Event event, long timestamp);
+
+    List<Tick> runnerTicks(long runnerId, long fromMillis, long toMillis);
+
+    List<Tick> eventTicks(long eventId, long fromMillis, long toMillis);
+
+    @Override
+    void close();
+
+    static TickStore disabled() {
+        return DisabledTickStore.INSTANCE;
+    }
+
+    enum DisabledTickStore implements TickStore {
+        INSTANCE;
+
+        @Override
+        public void append(Event event, long timestamp) {
+            // history is not kept
+        }
+
+        @Override
+        public List<Tick> runnerTicks(long runnerId, long fromMillis, long toMillis) {
+            return List.of();
+        }
+
+        @Override
+        public List<Tick> eventTicks(long eventId, long fromMillis, long toMillis) {
+            return List.of();
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.store;
+
+import java.nio.ByteBuffer;
+
+final class Varint {
+
+    static final int MAX_LONG_BYTES = 10;
+
+    private Varint() {
+    }
+
+    static void putLong(ByteBuffer buffer, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    static long getLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    static void putZigZag(ByteBuffer buffer, long value) {
+        putLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    static long getZigZag(ByteBuffer buffer) {
+        long raw = getLong(buffer);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.demo.capture;
+
+import com.example.demo.codec.EventStreamDecoder;
+import com.example.demo.codec.NameInterner;
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.config.TestProperties;
+import com.example.demo.config.WebClientConfig;
+import com.example.demo.fake.FakeLeonServer;
+import com.example.demo.model.Event;
+import com.example.demo.model.Sport;
+import com.example.demo.output.AsyncOutputSink;
+import com.example.demo.service.LeonApiService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ResponseCaptureTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replay_DecodesRecordedResponsesWithoutNetwork() throws IOException {
+        Path archive = directory.resolve("capture.bin.gz");
+        List<Sport> sports;
+        List<Event> events;
+        Event details;
+        String baseUrl;
+
+        try (FakeLeonServer server = FakeLeonServer.start(FakeLeonServer.Scale.small(),
+                FakeLeonServer.Faults.none())) {
+            baseUrl = server.baseUrl();
+            ResponseRecorder recorder = new ResponseRecorder(new AsyncOutputSink(
+                    new GZIPOutputStream(Files.newOutputStream(archive)), true, 64, 4096, Duration.ofMillis(50)));
+            LeonApiService api = apiService(baseUrl, recorder);
+
+            sports = api.getSports().block();
+            events = api.streamEventsByLeague(server.firstLeagueId()).collectList().block();
+            details = api.getEventDetails(server.firstLeagueId(), events.get(0).id()).block();
+            recorder.close();
+
+            assertThat(recorder.recorded()).isEqualTo(3);
+        }
+
+        ResponseReplayer replayer = new ResponseReplayer(ResponseArchive.read(archive), false);
+        LeonApiService replayed = apiService(baseUrl, replayer);
+
+        assertThat(replayed.getSports().block()).isEqualTo(sports);
+        assertThat(replayed.streamEventsByLeague(1_000_000L).collectList().block()).isEqualTo(events);
+        assertThat(replayed.getEventDetails(1_000_000L, details.id()).block()).isEqualTo(details);
+        assertThat(replayer.replayed()).isEqualTo(3);
+        assertThat(replayer.missing()).isZero();
+    }
+
+    @Test
+    void replay_PreservesRecordedTiming() {
+        RecordedResponse recorded = new RecordedResponse("GET", "/api?a=1", 200,
+                Map.of("Content-Type", "text/plain"), 0, Duration.ofMillis(200).toNanos(),
+                "hello".getBytes(StandardCharsets.UTF_8));
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ResponseReplayer(List.of(recorded), true).connector(null))
+                .build();
+
+        long startedAt = System.nanoTime();
+        String body = webClient.get().uri("http://localhost/api?a=1").retrieve().bodyToMono(String.class).block();
+
+        assertThat(body).isEqualTo("hello");
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void replay_AnswersUnknownRequestsWithNotFound() {
+        ResponseReplayer replayer = new ResponseReplayer(List.of(), false);
+        WebClient webClient = WebClient.builder().clientConnector(replayer.connector(null)).build();
+
+        StepVerifier.create(webClient.get().uri("http://localhost/missing").retrieve().bodyToMono(String.class))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+
+        assertThat(replayer.missing()).isEqualTo(1);
+    }
+
+    @Test
+    void record_ArchivesBodilessAndSkipsFailedResponses() throws IOException {
+        Path archive = directory.resolve("bodiless.bin.gz");
+        ResponseRecorder recorder = new ResponseRecorder(new AsyncOutputSink(
+                new GZIPOutputStream(Files.newOutputStream(archive)), true, 64, 4096, Duration.ofMillis(50)));
+        ClientHttpConnector network = (method, uri, requestCallback) -> {
+            MockClientHttpResponse response;
+            if (uri.getPath().equals("/not-modified")) {
+                response = new MockClientHttpResponse(HttpStatus.NOT_MODIFIED);
+            } else {
+                response = new MockClientHttpResponse(HttpStatus.OK);
+                response.setBody(Flux.error(new IOException("connection reset")));
+            }
+            return Mono.just(response);
+        };
+        ClientHttpConnector connector = recorder.connector(network);
+
+        ClientHttpResponse notModified = connector.connect(HttpMethod.GET, URI.create("http://localhost/not-modified"),
+                request -> Mono.empty()).block();
+        ClientHttpResponse failed = connector.connect(HttpMethod.GET, URI.create("http://localhost/reset"),
+                request -> Mono.empty()).block();
+        StepVerifier.create(failed.getBody()).verifyError(IOException.class);
+        recorder.close();
+
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(recorder.recorded()).isEqualTo(1);
+        assertThat(recorder.discarded()).isEqualTo(1);
+        assertThat(ResponseArchive.read(archive))
+                .extracting(RecordedResponse::uri, RecordedResponse::status)
+                .containsExactly(tuple("/not-modified", 304));
+    }
+
+    @Test
+    void record_CancelledMidBody_IsNeverReplayed() throws IOException {
+        Path archive = directory.resolve("cancelled.bin.gz");
+        ResponseRecorder recorder = new ResponseRecorder(new AsyncOutputSink(
+                new GZIPOutputStream(Files.newOutputStream(archive)), true, 64, 4096, Duration.ofMillis(50)));
+        ClientHttpConnector network = (method, uri, requestCallback) -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+            response.setBody(Flux.just("{\"id\":", "1}").concatWith(Flux.never()).map(chunk ->
+                    DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+            return Mono.just(response);
+        };
+
+        ClientHttpResponse cancelled = recorder.connector(network)
+                .connect(HttpMethod.GET, URI.create("http://localhost/slow"), request -> Mono.empty()).block();
+        StepVerifier.create(cancelled.getBody().take(1))
+                .expectNextCount(1)
+                .verifyComplete();
+        recorder.close();
+
+        assertThat(recorder.recorded()).isZero();
+        assertThat(recorder.discarded()).isEqualTo(1);
+        ResponseReplayer replayer = new ResponseReplayer(ResponseArchive.read(archive), false);
+        WebClient webClient = WebClient.builder().clientConnector(replayer.connector(null)).build();
+        StepVerifier.create(webClient.get().uri("http://localhost/slow").retrieve().bodyToMono(String.class))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+        assertThat(replayer.replayed()).isZero();
+    }
+
+    private LeonApiService apiService(String baseUrl, ResponseCapture capture) {
+        LeonApiProperties properties = properties(baseUrl);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WebClient webClient = new WebClientConfig().webClient(properties,
+                new JacksonConfig().objectMapper(new NameInterner()), registry, capture);
+        return new LeonApiService(webClient, properties, new EventStreamDecoder(new ObjectMapper()), registry);
+    }
+
+    private LeonApiProperties properties(String baseUrl) {
+        return TestProperties.bind("leon.api.base-url=" + baseUrl);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.checkpoint;
+
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.config.TestProperties;
+import com.example.demo.diff.OddsDiffEngine;
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Market;
+import com.example.demo.model.Region;
+import com.example.demo.model.Runner;
+import com.example.demo.model.Sport;
+import com.example.demo.service.EventDetailsCache;
+import com.example.demo.service.IntervalRefreshSchedule;
+import com.example.demo.service.LeonApiService;
+import com.example.demo.service.OddsParser;
+import com.example.demo.service.SportsTree;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CheckpointServiceTest {
+
+    @Mock
+    private OddsParser parser;
+
+    @Mock
+    private LeonApiService apiService;
+
+    @TempDir
+    private Path directory;
+
+    private IntervalRefreshSchedule schedule;
+
+    @Test
+    void restore_RecoversStateWrittenBySave() {
+        long now = System.currentTimeMillis();
+        SportsTree tree = new SportsTree(List.of(sport()), now);
+        Event event = event(2.05);
+        Map<Long, EventDetailsCache.Entry> cached = Map.of(1000L,
+                new EventDetailsCache.Entry(event, "\"v1\"", null, now, 512));
+        OddsDiffEngine diffEngine = new OddsDiffEngine();
+        diffEngine.diff(event);
+
+        when(parser.sportsTree()).thenReturn(Optional.of(tree));
+        when(apiService.cacheEntries()).thenReturn(cached);
+        CheckpointService saving = service(diffEngine, Duration.ofHours(1));
+        schedule.onRefreshed(sport(), league(), List.of(event), now);
+        saving.save();
+
+        OddsDiffEngine restoredEngine = new OddsDiffEngine();
+        boolean restored = service(restoredEngine, Duration.ofHours(1)).restore();
+
+        assertThat(restored).isTrue();
+        verify(parser).restoreSportsTree(tree);
+        verify(apiService).restoreCache(cached);
+        assertThat(restoredEngine.diff(event(2.05))).isEmpty();
+        assertThat(restoredEngine.diff(event(2.10))).hasSize(1);
+        assertThat(schedule.states()).containsEntry(100L,
+                new IntervalRefreshSchedule.LeagueState(now, event.kickoff()));
+    }
+
+    @Test
+    void restore_IgnoresCheckpointOlderThanMaxAge() {
+        when(parser.sportsTree()).thenReturn(Optional.empty());
+        when(apiService.cacheEntries()).thenReturn(Map.of());
+        service(new OddsDiffEngine(), Duration.ofHours(1)).save();
+
+        boolean restored = service(new OddsDiffEngine(), Duration.ZERO.minusMillis(1)).restore();
+
+        assertThat(restored).isFalse();
+        verify(apiService, never()).restoreCache(any());
+    }
+
+    @Test
+    void restore_IgnoresCorruptFile() throws IOException {
+        Files.write(directory.resolve("checkpoint.bin"), new byte[] {1, 2, 3});
+
+        boolean restored = service(new OddsDiffEngine(), Duration.ofHours(1)).restore();
+
+        assertThat(restored).isFalse();
+        verify(parser, never()).restoreSportsTree(any());
+    }
+
+    private CheckpointService service(OddsDiffEngine diffEngine, Duration maxAge) {
+        LeonApiProperties properties = TestProperties.bind(
+                "leon.checkpoint.enabled=true",
+                "leon.checkpoint.path=" + directory.resolve("checkpoint.bin"),
+                "leon.checkpoint.max-age=" + maxAge);
+        schedule = new IntervalRefreshSchedule(properties.parser().polling());
+        return new CheckpointService(parser, apiService, diffEngine, schedule, properties);
+    }
+
+    private Sport sport() {
+        return new Sport(1L, "Football", "Soccer", List.of(new Region(10L, "England", List.of(league()))));
+    }
+
+    private League league() {
+        return new League(100L, "Premier League", true, 1, 5);
+    }
+
+    private Event event(double price) {
+        return new Event(1000L, "Team A - Team B", System.currentTimeMillis() + 3_600_000, List.of(
+                new Market(1L, "Winner", true, List.of(
+                        new Runner(11L, "1", price, true),
+                        new Runner(12L, "2", 3.4, true)))));
+    }
+}
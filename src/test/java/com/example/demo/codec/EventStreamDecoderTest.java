@@ -0,0 +1,93 @@
+package com.example.demo.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventStreamDecoderTest {
+
+    private static final String PAYLOAD = """
+            {
+                "enabled": true,
+                "meta": {"events": [{"id": 99}]},
+                "events": [
+                    {"id": 1, "name": "Match 1", "kickoff": 1704067200000, "extra": {"a": [1, 2]},
+                     "markets": [{"id": 10, "name": "Winner", "open": true,
+                                  "runners": [{"id": 100, "name": "1", "price": 1.95, "open": true}]}]},
+                    {"id": 2, "name": "Match 2", "kickoff": 1704067200000, "markets": []},
+                    {"id": 3, "name": "Match 3", "kickoff": 1704067200000, "markets": []}
+                ],
+                "totalCount": 3
+            }
+            """;
+
+    private EventStreamDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new EventStreamDecoder(new ObjectMapper());
+    }
+
+    @Test
+    void decode_emitsEventsFromTopLevelEventsArrayOnly() {
+        StepVerifier.create(decoder.decode(chunks(PAYLOAD, 7)))
+                .assertNext(event -> {
+                    assertThat(event.id()).isEqualTo(1L);
+                    assertThat(event.markets()).hasSize(1);
+                    assertThat(event.markets().get(0).runners().get(0).price()).isEqualTo(1.95);
+                })
+                .assertNext(event -> assertThat(event.id()).isEqualTo(2L))
+                .assertNext(event -> assertThat(event.id()).isEqualTo(3L))
+                .verifyComplete();
+    }
+
+    @Test
+    void decode_take_cancelsBodyEarly() {
+        AtomicInteger requestedChunks = new AtomicInteger();
+        Flux<DataBuffer> body = chunks(PAYLOAD, 16).doOnNext(buffer -> requestedChunks.incrementAndGet());
+        int totalChunks = (PAYLOAD.getBytes(StandardCharsets.UTF_8).length + 15) / 16;
+
+        StepVerifier.create(decoder.decode(body).take(1))
+                .assertNext(event -> assertThat(event.id()).isEqualTo(1L))
+                .verifyComplete();
+
+        assertThat(requestedChunks.get()).isLessThan(totalChunks);
+    }
+
+    @Test
+    void decode_nullEvents_completesEmpty() {
+        StepVerifier.create(decoder.decode(chunks("{\"events\": null}", 4)))
+                .verifyComplete();
+    }
+
+    @Test
+    void decode_truncatedPayload_fails() {
+        String truncated = PAYLOAD.substring(0, PAYLOAD.indexOf("Match 2"));
+
+        StepVerifier.create(decoder.decode(chunks(truncated, 32)))
+                .expectNextCount(1)
+                .verifyError(DecodingException.class);
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> parts = new ArrayList<>();
+        for (int from = 0; from < bytes.length; from += chunkSize) {
+            parts.add(Arrays.copyOfRange(bytes, from, Math.min(bytes.length, from + chunkSize)));
+        }
+        return Flux.fromIterable(parts).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+}
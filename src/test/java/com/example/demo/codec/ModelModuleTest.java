@@ -0,0 +1,177 @@
+package com.example.demo.codec;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.model.Event;
+import com.example.demo.model.EventsResponse;
+import com.example.demo.model.Sport;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelModuleTest {
+
+    private static final String EVENT = """
+            {
+                "id": 1001,
+                "name": "Arsenal - Chelsea",
+                "nameDefault": "Arsenal - Chelsea",
+                "competitors": [{"id": 1, "name": "Arsenal", "logo": {"url": "a.png"}}],
+                "kickoff": 1704067200000,
+                "league": {"id": 5, "sport": {"id": 1, "family": "Soccer"}},
+                "markets": [
+                    {
+                        "id": 5001,
+                        "name": "Winner",
+                        "open": true,
+                        "specifiers": {"handicap": "0"},
+                        "runners": [
+                            {"id": 1, "name": "1", "price": 1.85, "open": true, "tags": ["HOME"]},
+                            {"id": 2, "name": "X", "price": "3.40", "open": true},
+                            null
+                        ]
+                    },
+                    {"id": 5002, "name": "Total", "open": false, "runners": null}
+                ],
+                "stats": {"nested": [[1, 2], {"deep": [true]}]}
+            }
+            """;
+
+    private static final String SPORTS = """
+            [
+                {
+                    "id": 1,
+                    "name": "Football",
+                    "family": "Soccer",
+                    "weight": 10,
+                    "regions": [
+                        {
+                            "id": 100,
+                            "name": "England",
+                            "family": {"ignored": true},
+                            "leagues": [
+                                {"id": 200, "name": "Premier League", "top": true, "topOrder": 1, "prematch": 15,
+                                 "logoSource": {"type": "svg"}}
+                            ]
+                        },
+                        {"id": 101, "name": "Spain", "leagues": null}
+                    ]
+                }
+            ]
+            """;
+
+    private final ObjectMapper fast = new JacksonConfig().objectMapper(new NameInterner());
+    private final ObjectMapper reference = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void event_matchesDefaultRecordDeserialization() throws Exception {
+        Event event = fast.readValue(EVENT, Event.class);
+
+        assertThat(event).isEqualTo(reference.readValue(EVENT, Event.class));
+        assertThat(event.markets().getFirst().runners().get(1).price()).isEqualTo(3.40);
+        assertThat(event.markets().getFirst().runners().get(2)).isNull();
+        assertThat(event.markets().get(1).runners()).isNull();
+    }
+
+    @Test
+    void sports_matchesDefaultRecordDeserialization() throws Exception {
+        TypeReference<List<Sport>> type = new TypeReference<>() { };
+
+        List<Sport> sports = fast.readValue(SPORTS, type);
+
+        assertThat(sports).isEqualTo(reference.readValue(SPORTS, type));
+        assertThat(sports.getFirst().regions().getFirst().leagues().getFirst().topOrder()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsResponse_usesFastPathForNestedEvents() throws Exception {
+        String json = "{\"enabled\":true,\"vtag\":\"x\",\"events\":[" + EVENT + "," + EVENT + "]}";
+
+        EventsResponse response = fast.readValue(json, EventsResponse.class);
+
+        assertThat(response).isEqualTo(reference.readValue(json, EventsResponse.class));
+        assertThat(response.events()).hasSize(2);
+        assertThat(response.events().get(1).markets().getFirst().name())
+                .isSameAs(response.events().getFirst().markets().getFirst().name());
+        assertThat(response.events().get(1).markets().getFirst().runners().get(1).name())
+                .isSameAs(response.events().getFirst().markets().getFirst().runners().get(1).name());
+    }
+
+    @Test
+    void event_rejectsNonObjectInput() {
+        assertThatThrownBy(() -> fast.readValue("[1, 2]", Event.class))
+                .isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> fast.readValue("{\"id\": 1, \"markets\": {\"id\": 2}}", Event.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @Test
+    void decoder_handlesOnlyModelTypes() throws Exception {
+        ModelJsonDecoder decoder = new ModelJsonDecoder(fast, 1024 * 1024);
+
+        assertThat(decoder.canDecode(ResolvableType.forClass(Event.class), MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClassWithGenerics(List.class, Sport.class), null)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(Object.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(decoder.canDecode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(decoder.canDecode(ResolvableType.forClass(Event.class), MediaType.TEXT_PLAIN)).isFalse();
+        assertThat(decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(
+                        EVENT.getBytes(StandardCharsets.UTF_8)),
+                ResolvableType.forClass(Event.class), MediaType.APPLICATION_JSON, null))
+                .isEqualTo(fast.readValue(EVENT, Event.class));
+    }
+
+    @Test
+    void decoder_streamsTopLevelArrayElements() throws Exception {
+        ModelJsonDecoder decoder = new ModelJsonDecoder(fast, 1024 * 1024);
+        byte[] sports = SPORTS.getBytes(StandardCharsets.UTF_8);
+        int half = sports.length / 2;
+        Flux<DataBuffer> chunks = Flux.just(Arrays.copyOfRange(sports, 0, half),
+                        Arrays.copyOfRange(sports, half, sports.length))
+                .map(DefaultDataBufferFactory.sharedInstance::wrap);
+
+        StepVerifier.create(decoder.decode(chunks, ResolvableType.forClass(Sport.class), MediaType.APPLICATION_JSON,
+                        null))
+                .expectNextSequence(fast.readValue(SPORTS, new TypeReference<List<Sport>>() { }))
+                .verifyComplete();
+        StepVerifier.create(decoder.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(
+                                EVENT.getBytes(StandardCharsets.UTF_8))),
+                        ResolvableType.forClass(Event.class), MediaType.APPLICATION_JSON, null))
+                .expectNext(fast.readValue(EVENT, Event.class))
+                .verifyComplete();
+    }
+
+    @Test
+    void decoder_isPreferredOverDefaultJsonCodec() {
+        ModelJsonDecoder decoder = new ModelJsonDecoder(fast, 1024 * 1024);
+
+        HttpMessageReader<?> reader = ExchangeStrategies.builder()
+                .codecs(configurer -> configurer.customCodecs().register(decoder))
+                .build()
+                .messageReaders().stream()
+                .filter(candidate -> candidate.canRead(ResolvableType.forClass(Event.class),
+                        MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(reader).isInstanceOf(DecoderHttpMessageReader.class);
+        assertThat(((DecoderHttpMessageReader<?>) reader).getDecoder()).isSameAs(decoder);
+    }
+}
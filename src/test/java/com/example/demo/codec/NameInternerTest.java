@@ -0,0 +1,68 @@
+package com.example.demo.codec;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NameInternerTest {
+
+    @Test
+    void intern_returnsSameInstanceForRepeatedNames() {
+        NameInterner interner = new NameInterner(16);
+
+        String first = interner.intern(new String("Match Result"));
+        String second = interner.intern("xMatch Resultx".toCharArray(), 1, 12);
+
+        assertThat(second).isSameAs(first).isEqualTo("Match Result");
+        assertThat(interner.hits()).isEqualTo(1);
+        assertThat(interner.misses()).isEqualTo(1);
+        assertThat(interner.bytesSaved()).isPositive();
+    }
+
+    @Test
+    void intern_staysWithinCapacity() {
+        NameInterner interner = new NameInterner(5);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(interner.intern("Runner " + i)).isEqualTo("Runner " + i);
+        }
+
+        assertThat(interner.capacity()).isEqualTo(8);
+        assertThat(interner.size()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void intern_skipsLongValues() {
+        NameInterner interner = new NameInterner();
+        String longName = "x".repeat(100);
+
+        assertThat(interner.intern(longName)).isNotSameAs(interner.intern(longName)).isEqualTo(longName);
+        assertThat(interner.size()).isZero();
+        assertThat(interner.intern(null)).isNull();
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new NameInterner(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bindTo_exposesPoolOccupancy() {
+        NameInterner interner = new NameInterner(64);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        interner.bindTo(registry);
+
+        interner.intern("Over");
+        interner.intern("Over");
+        interner.intern("Under");
+
+        assertThat(registry.get("leon.intern.size").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("leon.intern.retained").gauge().value()).isGreaterThan(64 * 4);
+        assertThat(registry.get("leon.intern.lookups").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("leon.intern.lookups").tag("result", "miss").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("leon.intern.bytes.saved").functionCounter().count()).isPositive();
+    }
+}
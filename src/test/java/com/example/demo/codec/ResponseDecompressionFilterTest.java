@@ -0,0 +1,187 @@
+package com.example.demo.codec;
+
+import com.example.demo.capture.ResponseCapture;
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.config.TestProperties;
+import com.example.demo.config.WebClientConfig;
+import com.example.demo.fake.FakeLeonServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.BrotliEncoder;
+import io.netty.handler.codec.compression.DecompressionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ResponseDecompressionFilterTest {
+
+    private static final String BODY = "{\"events\":[" + "{\"id\":1,\"name\":\"Team A - Team B\"},".repeat(200)
+            + "{\"id\":2}]}";
+    private static final URI EVENTS_URI = URI.create("http://localhost/api-2/betline/events/all?league_id=1");
+    private static final int MAX_ALLOCATION = 1024 * 1024;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void filter_NegotiatesEncodingAndInflatesGzipChunks() throws IOException {
+        AtomicReference<ClientRequest> sent = new AtomicReference<>();
+        AtomicLong bodyBytes = new AtomicLong();
+        byte[] compressed = gzip(BODY.getBytes(StandardCharsets.UTF_8));
+
+        ClientResponse response = new ResponseDecompressionFilter(registry, false, MAX_ALLOCATION)
+                .filter(ClientRequest.create(HttpMethod.GET, EVENTS_URI)
+                        .attribute(ResponseDecompressionFilter.BODY_BYTES_ATTRIBUTE, bodyBytes)
+                        .build(), request -> {
+                    sent.set(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                            .body(chunks(compressed, 7))
+                            .build());
+                })
+                .block();
+
+        assertThat(sent.get().headers().getFirst(HttpHeaders.ACCEPT_ENCODING)).isEqualTo("gzip, deflate");
+        assertThat(response.headers().asHttpHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(response.bodyToMono(String.class).block()).isEqualTo(BODY);
+        assertThat(bytes(ResponseDecompressionFilter.WIRE_BYTES)).isEqualTo(compressed.length);
+        assertThat(bytes(ResponseDecompressionFilter.DECODED_BYTES)).isEqualTo(BODY.length());
+        assertThat(bodyBytes).hasValue(BODY.length());
+    }
+
+    @Test
+    void filter_RejectsBodiesInflatingPastMaxAllocation() throws IOException {
+        byte[] compressed = gzip(BODY.getBytes(StandardCharsets.UTF_8));
+
+        ClientResponse response = new ResponseDecompressionFilter(registry, false, 64)
+                .filter(ClientRequest.create(HttpMethod.GET, EVENTS_URI).build(),
+                        request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                                .body(chunks(compressed, 1))
+                                .build()))
+                .block();
+
+        assertThatThrownBy(() -> response.bodyToMono(String.class).block())
+                .isInstanceOf(DecompressionException.class);
+    }
+
+    @Test
+    void filter_InflatesBrotliWhenAvailable() {
+        assumeTrue(Brotli.isAvailable());
+        byte[] compressed = brotli(BODY.getBytes(StandardCharsets.UTF_8));
+
+        ClientResponse response = new ResponseDecompressionFilter(registry, MAX_ALLOCATION)
+                .filter(ClientRequest.create(HttpMethod.GET, EVENTS_URI).build(),
+                        request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_ENCODING, "br")
+                                .body(chunks(compressed, 5))
+                                .build()))
+                .block();
+
+        assertThat(response.bodyToMono(String.class).block()).isEqualTo(BODY);
+        assertThat(bytes(ResponseDecompressionFilter.WIRE_BYTES)).isEqualTo(compressed.length);
+    }
+
+    @Test
+    void filter_CountsIdentityBodiesOnBothSides() {
+        AtomicLong bodyBytes = new AtomicLong();
+        ClientResponse response = new ResponseDecompressionFilter(registry, false, MAX_ALLOCATION)
+                .filter(ClientRequest.create(HttpMethod.GET, EVENTS_URI)
+                                .attribute(ResponseDecompressionFilter.BODY_BYTES_ATTRIBUTE, bodyBytes)
+                                .build(),
+                        request -> Mono.just(ClientResponse.create(HttpStatus.OK).body(BODY).build()))
+                .block();
+
+        assertThat(response.bodyToMono(String.class).block()).isEqualTo(BODY);
+        assertThat(bodyBytes).hasValue(BODY.length());
+        assertThat(bytes(ResponseDecompressionFilter.WIRE_BYTES)).isEqualTo(BODY.length());
+        assertThat(bytes(ResponseDecompressionFilter.DECODED_BYTES)).isEqualTo(BODY.length());
+    }
+
+    @Test
+    void webClient_ReceivesCompressedResponsesFromServer() {
+        try (FakeLeonServer server = FakeLeonServer.start(FakeLeonServer.Scale.small(),
+                FakeLeonServer.Faults.none())) {
+            WebClient webClient = new WebClientConfig().webClient(properties(server.baseUrl()),
+                    new JacksonConfig().objectMapper(new NameInterner()), registry, ResponseCapture.disabled());
+
+            String body = webClient.get()
+                    .uri("/api-2/betline/events/all?league_id={id}", server.firstLeagueId())
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block();
+
+            assertThat(body).contains("\"events\":[");
+            assertThat(bytes(ResponseDecompressionFilter.DECODED_BYTES)).isEqualTo(body.length());
+            assertThat(bytes(ResponseDecompressionFilter.WIRE_BYTES)).isPositive().isLessThan(body.length());
+        }
+    }
+
+    private double bytes(String name) {
+        return registry.counter(name, "endpoint", "events-all").count();
+    }
+
+    private static Flux<DataBuffer> chunks(byte[] bytes, int count) {
+        int size = (bytes.length + count - 1) / count;
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + size))));
+        }
+        return Flux.fromIterable(buffers).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] brotli(byte[] bytes) {
+        EmbeddedChannel channel = new EmbeddedChannel(new BrotliEncoder());
+        channel.writeOutbound(Unpooled.wrappedBuffer(bytes));
+        channel.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuf chunk = channel.readOutbound(); chunk != null; chunk = channel.readOutbound()) {
+            byte[] part = new byte[chunk.readableBytes()];
+            chunk.readBytes(part);
+            chunk.release();
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static LeonApiProperties properties(String baseUrl) {
+        return TestProperties.bind("leon.api.base-url=" + baseUrl, "leon.api.retry.max-attempts=2");
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventsResponse;
+import com.example.demo.model.Runner;
+import com.example.demo.model.Sport;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelRuntimeHintsTest {
+
+    @Test
+    void registerHints_CoversJacksonBoundModelRecords() throws NoSuchMethodException {
+        RuntimeHints hints = new RuntimeHints();
+
+        new ModelRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(Sport.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(EventsResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(Event.class.getMethod("markets")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Runner.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.config;
+
+import com.example.demo.output.OutputSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputConfigTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void sink_fileTargetWithoutPath_failsValidation() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        LeonApiProperties.Output.Sink missing = TestProperties.bind("leon.output.sink.target=file",
+                "leon.output.sink.path=").output().sink();
+        LeonApiProperties.Output.Sink stdout = TestProperties.bind("leon.output.sink.path=").output().sink();
+
+        assertThat(validator.validate(missing))
+                .extracting(violation -> violation.getMessage())
+                .containsExactly("path is required when target is file");
+        assertThat(validator.validate(stdout)).isEmpty();
+    }
+
+    @Test
+    void outputSink_syncFileTarget_closesFile() throws IOException {
+        Path file = directory.resolve("odds.txt");
+        OutputSink sink = new OutputConfig().outputSink(TestProperties.bind(
+                "leon.output.sink.target=file", "leon.output.sink.path=" + file), new SimpleMeterRegistry());
+
+        sink.write("line\n".getBytes(StandardCharsets.UTF_8));
+        sink.close();
+
+        assertThat(Files.readString(file)).isEqualTo("line\n");
+        Files.delete(file);
+        assertThat(file).doesNotExist();
+    }
+}
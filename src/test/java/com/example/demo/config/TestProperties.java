@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class TestProperties {
+
+    private static final List<String> DEFAULTS = List.of(
+            "leon.api.timeout=2s",
+            "leon.api.retry.max-attempts=1",
+            "leon.api.retry.delay=10ms",
+            "leon.api.http.user-agent=Mozilla/5.0 Test",
+            "leon.api.circuit-breaker.enabled=false",
+            "leon.api.cache.enabled=false",
+            "leon.api.network.transport=nio",
+            "leon.api.network.event-loop-threads=1",
+            "leon.api.network.max-connections=16",
+            "leon.api.network.http2=false",
+            "leon.parser.max-parallel-requests=3",
+            "leon.parser.target-sports=Soccer",
+            "leon.output.sink.async=false");
+
+    private TestProperties() {
+    }
+
+    public static LeonApiProperties bind(String... overrides) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String entry : DEFAULTS) {
+            put(values, entry);
+        }
+        for (String entry : overrides) {
+            put(values, entry);
+        }
+
+        List<PropertySource<?>> sources = new ArrayList<>();
+        sources.add(new MapPropertySource("test", values));
+        try {
+            sources.addAll(new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Binder(ConfigurationPropertySources.from(sources))
+                .bind("leon", LeonApiProperties.class)
+                .get();
+    }
+
+    private static void put(Map<String, Object> values, String entry) {
+        int separator = entry.indexOf('=');
+        values.put(entry.substring(0, separator), entry.substring(separator + 1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.config;
+
+import com.example.demo.capture.ResponseCapture;
+import com.example.demo.codec.NameInterner;
+import com.example.demo.fake.FakeLeonServer;
+import com.example.demo.model.Sport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.uring.IoUring;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebClientConfigTest {
+
+    private FakeLeonServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(LeonApiProperties.Api.Network.Transport.class)
+    void create_FallsBackToAvailableTransport(LeonApiProperties.Api.Network.Transport requested) {
+        LeonApiProperties.Api.Network.Transport expected = switch (requested) {
+            case IO_URING -> IoUring.isAvailable() ? requested : fallback(LeonApiProperties.Api.Network.Transport.EPOLL);
+            case EPOLL -> fallback(requested);
+            default -> requested;
+        };
+
+        TransportLoopResources resources = TransportLoopResources.create(requested, 1);
+        try {
+            assertThat(resources.transport()).isEqualTo(expected);
+        } finally {
+            resources.dispose();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(LeonApiProperties.Api.Network.Transport.class)
+    void webClient_FetchesOverConfiguredTransport(LeonApiProperties.Api.Network.Transport transport) {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), FakeLeonServer.Faults.none());
+
+        List<Sport> sports = fetchSports(webClient(new LeonApiProperties.Api.Network(transport, 1, 2, false)));
+
+        assertThat(sports).hasSize(4);
+        assertThat(server.requests("HTTP/1.1")).isEqualTo(1);
+    }
+
+    @Test
+    void webClient_MultiplexesRequestsOverHttp2() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), FakeLeonServer.Faults.none());
+        WebClient webClient = webClient(new LeonApiProperties.Api.Network(
+                LeonApiProperties.Api.Network.Transport.NIO, 1, 1, true));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(fetchSports(webClient)).hasSize(4);
+        }
+
+        assertThat(server.requests("HTTP/2.0")).isPositive();
+    }
+
+    private static LeonApiProperties.Api.Network.Transport fallback(LeonApiProperties.Api.Network.Transport epoll) {
+        return Epoll.isAvailable() ? epoll : LeonApiProperties.Api.Network.Transport.NIO;
+    }
+
+    private List<Sport> fetchSports(WebClient webClient) {
+        return webClient.get().uri("/api-2/betline/sports").retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<Sport>>() { })
+                .block(Duration.ofSeconds(5));
+    }
+
+    private WebClient webClient(LeonApiProperties.Api.Network network) {
+        LeonApiProperties properties = TestProperties.bind(
+                "leon.api.base-url=" + server.baseUrl(),
+                "leon.api.network.transport=" + network.transport(),
+                "leon.api.network.event-loop-threads=" + network.eventLoopThreads(),
+                "leon.api.network.max-connections=" + network.maxConnections(),
+                "leon.api.network.http2=" + network.http2());
+        return new WebClientConfig().webClient(properties,
+                new JacksonConfig().objectMapper(new NameInterner()), new SimpleMeterRegistry(),
+                ResponseCapture.disabled());
+    }
+}
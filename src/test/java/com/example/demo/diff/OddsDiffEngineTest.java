@@ -0,0 +1,97 @@
+package com.example.demo.diff;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OddsDiffEngineTest {
+
+    private static final long KICKOFF = 1704067200000L;
+
+    private OddsDiffEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new OddsDiffEngine();
+    }
+
+    @Test
+    void diff_firstObservation_reportsOpenRunnersAsAdded() {
+        Event event = event(market(true, new Runner(1L, "1", 1.95, true), new Runner(2L, "2", 3.5, false)));
+
+        List<RunnerChange> changes = engine.diff(event);
+
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).runnerId()).isEqualTo(1L);
+        assertThat(changes.get(0).type()).isEqualTo(ChangeType.ADDED);
+        assertThat(changes.get(0).newPrice()).isEqualTo(1.95);
+    }
+
+    @Test
+    void diff_unchangedEvent_reportsNothing() {
+        engine.diff(event(market(true, new Runner(1L, "1", 1.95, true))));
+
+        assertThat(engine.diff(event(market(true, new Runner(1L, "1", 1.95, true))))).isEmpty();
+    }
+
+    @Test
+    void diff_priceChange_reportsOldAndNewPrice() {
+        engine.diff(event(market(true, new Runner(1L, "1", 1.95, true))));
+
+        List<RunnerChange> changes = engine.diff(event(market(true, new Runner(1L, "1", 2.10, true))));
+
+        assertThat(changes).singleElement().satisfies(change -> {
+            assertThat(change.type()).isEqualTo(ChangeType.PRICE_CHANGED);
+            assertThat(change.oldPrice()).isEqualTo(1.95);
+            assertThat(change.newPrice()).isEqualTo(2.10);
+        });
+    }
+
+    @Test
+    void diff_closedMarket_suspendsAndReopensRunners() {
+        engine.diff(event(market(true, new Runner(1L, "1", 1.95, true))));
+
+        List<RunnerChange> suspended = engine.diff(event(market(false, new Runner(1L, "1", 1.95, true))));
+        List<RunnerChange> reopened = engine.diff(event(market(true, new Runner(1L, "1", 2.00, true))));
+
+        assertThat(suspended).singleElement().extracting(RunnerChange::type).isEqualTo(ChangeType.SUSPENDED);
+        assertThat(reopened).singleElement().extracting(RunnerChange::type).isEqualTo(ChangeType.REOPENED);
+    }
+
+    @Test
+    void diff_missingRunner_reportsRemoved() {
+        engine.diff(event(market(true, new Runner(1L, "1", 1.95, true), new Runner(2L, "2", 3.5, true))));
+
+        List<RunnerChange> changes = engine.diff(event(market(true, new Runner(1L, "1", 1.95, true))));
+
+        assertThat(changes).singleElement().satisfies(change -> {
+            assertThat(change.runnerId()).isEqualTo(2L);
+            assertThat(change.type()).isEqualTo(ChangeType.REMOVED);
+            assertThat(change.marketName()).isEqualTo("Winner");
+        });
+        assertThat(engine.runnerCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictKickedOffBefore_dropsStartedEvents() {
+        engine.diff(event(market(true, new Runner(1L, "1", 1.95, true))));
+
+        assertThat(engine.evictKickedOffBefore(KICKOFF)).isZero();
+        assertThat(engine.evictKickedOffBefore(KICKOFF + 1)).isEqualTo(1);
+        assertThat(engine.eventCount()).isZero();
+    }
+
+    private static Event event(Market market) {
+        return new Event(1000L, "Team A vs Team B", KICKOFF, List.of(market));
+    }
+
+    private static Market market(boolean open, Runner... runners) {
+        return new Market(10L, "Winner", open, List.of(runners));
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.demo.fake;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public final class FakeLeonServer implements AutoCloseable {
+
+    public static final String SPORTS = "sports";
+    public static final String EVENTS = "events-all";
+    public static final String EVENT = "event-all";
+
+    private static final long LEAGUE_ID_BASE = 1_000_000L;
+    private static final long EVENTS_PER_LEAGUE_LIMIT = 1_000L;
+    private static final double Z_99 = 2.326;
+    private static final int SLOW_BODY_CHUNKS = 8;
+    private static final String[] RUNNER_NAMES = {"1", "X", "2"};
+    private static final String[][] FAMILIES = {
+            {"Soccer", "Football"}, {"Tennis", "Tennis"}, {"IceHockey", "Ice Hockey"},
+            {"Basketball", "Basketball"}, {"Volleyball", "Volleyball"}, {"Handball", "Handball"}};
+
+    private final Scale scale;
+    private final long startedAt = System.currentTimeMillis();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final byte[] sportsBody;
+    private final Map<Long, byte[]> leagueBodies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> injected = new ConcurrentHashMap<>();
+    private final DisposableServer server;
+    private volatile Faults faults;
+
+    private FakeLeonServer(int port, Scale scale, Faults faults) {
+        if (scale.eventsPerLeague() > EVENTS_PER_LEAGUE_LIMIT) {
+            throw new IllegalArgumentException("At most " + EVENTS_PER_LEAGUE_LIMIT + " events per league");
+        }
+        this.scale = scale;
+        this.faults = faults;
+        this.sportsBody = json(this::writeSports);
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(port)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .compress(true)
+                .route(routes -> routes
+                        .get("/api-2/betline/sports", (req, res) -> handle(req, res, SPORTS, q -> sports()))
+                        .get("/api-2/betline/events/all", (req, res) -> handle(req, res, EVENTS, this::events))
+                        .get("/api-2/betline/event/all", (req, res) -> handle(req, res, EVENT,
+                                q -> event(q, req.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH)))))
+                .bindNow();
+    }
+
+    public static FakeLeonServer start(Scale scale, Faults faults) {
+        return new FakeLeonServer(0, scale, faults);
+    }
+
+    public static FakeLeonServer start(int port, Scale scale, Faults faults) {
+        return new FakeLeonServer(port, scale, faults);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public void faults(Faults newFaults) {
+        this.faults = newFaults;
+    }
+
+    public long requests(String endpoint) {
+        LongAdder count = requests.get(endpoint);
+        return count == null ? 0 : count.sum();
+    }
+
+    public long injected(String fault) {
+        LongAdder count = injected.get(fault);
+        return count == null ? 0 : count.sum();
+    }
+
+    public long firstLeagueId() {
+        return LEAGUE_ID_BASE;
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response, String endpoint,
+                                   Function<QueryStringDecoder, Reply> handler) {
+        requests.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
+        requests.computeIfAbsent(request.version().text(), k -> new LongAdder()).increment();
+        Faults current = faults;
+        Duration latency = current.sampleLatency(ThreadLocalRandom.current());
+
+        return Mono.delay(latency).then(Mono.defer(() -> Mono.from(respond(request, response, handler, current))));
+    }
+
+    private Publisher<Void> respond(HttpServerRequest request, HttpServerResponse response,
+                                    Function<QueryStringDecoder, Reply> handler, Faults current) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < current.resetRate()) {
+            count("reset");
+            response.withConnection(connection -> {
+                connection.channel().config().setOption(ChannelOption.SO_LINGER, 0);
+                connection.channel().close();
+            });
+            return Mono.empty();
+        }
+        roll -= current.resetRate();
+        if (roll < current.rateLimitRate()) {
+            count("rate_limited");
+            return response.status(HttpResponseStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaderNames.RETRY_AFTER, "1")
+                    .send();
+        }
+        roll -= current.rateLimitRate();
+        if (roll < current.serverErrorRate()) {
+            count("server_error");
+            return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send();
+        }
+
+        Reply reply = handler.apply(new QueryStringDecoder(request.uri()));
+        response.status(reply.status())
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json");
+        if (reply.etag() != null) {
+            response.header(HttpHeaderNames.ETAG, reply.etag());
+        }
+        if (reply.body().length == 0) {
+            return response.send();
+        }
+        if (random.nextDouble() < current.slowBodyRate()) {
+            count("slow_body");
+            return response.send(slowBody(reply.body(), current.slowChunkDelay()));
+        }
+        return response.header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(reply.body().length))
+                .sendByteArray(Mono.just(reply.body()));
+    }
+
+    private Flux<ByteBuf> slowBody(byte[] body, Duration chunkDelay) {
+        int chunkSize = Math.max(1, (body.length + SLOW_BODY_CHUNKS - 1) / SLOW_BODY_CHUNKS);
+        return Flux.range(0, (body.length + chunkSize - 1) / chunkSize)
+                .delayElements(chunkDelay)
+                .map(i -> Unpooled.wrappedBuffer(Arrays.copyOfRange(body, i * chunkSize,
+                        Math.min(body.length, (i + 1) * chunkSize))));
+    }
+
+    private void count(String fault) {
+        injected.computeIfAbsent(fault, k -> new LongAdder()).increment();
+    }
+
+    private Reply sports() {
+        return new Reply(HttpResponseStatus.OK, sportsBody, null);
+    }
+
+    private Reply events(QueryStringDecoder query) {
+        long leagueId = longParam(query, "league_id");
+        if (!isLeague(leagueId)) {
+            return new Reply(HttpResponseStatus.OK, json(gen -> writeEventList(gen, -1)), null);
+        }
+        byte[] body = leagueBodies.computeIfAbsent(leagueId, id -> json(gen -> writeEventList(gen, id)));
+        return new Reply(HttpResponseStatus.OK, body, null);
+    }
+
+    private Reply event(QueryStringDecoder query, String ifNoneMatch) {
+        long eventId = longParam(query, "eventId");
+        long leagueId = eventId / EVENTS_PER_LEAGUE_LIMIT;
+        if (!isLeague(leagueId) || eventId % EVENTS_PER_LEAGUE_LIMIT >= scale.eventsPerLeague()) {
+            return new Reply(HttpResponseStatus.NOT_FOUND, new byte[0], null);
+        }
+        long epoch = priceEpoch();
+        String etag = "\"" + eventId + "-" + epoch + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return new Reply(HttpResponseStatus.NOT_MODIFIED, new byte[0], etag);
+        }
+        return new Reply(HttpResponseStatus.OK, json(gen -> writeEvent(gen, eventId, epoch, true)), etag);
+    }
+
+    private long priceEpoch() {
+        long interval = scale.priceChangeInterval().toMillis();
+        return interval <= 0 ? 0 : (System.currentTimeMillis() - startedAt) / interval;
+    }
+
+    private boolean isLeague(long leagueId) {
+        long index = leagueId - LEAGUE_ID_BASE;
+        return index >= 0 && index < (long) scale.sports() * scale.regionsPerSport() * scale.leaguesPerRegion();
+    }
+
+    private static long longParam(QueryStringDecoder query, String name) {
+        List<String> values = query.parameters().get(name);
+        if (values == null || values.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(values.get(0));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void writeSports(JsonGenerator gen) throws IOException {
+        gen.writeStartArray();
+        for (int s = 0; s < scale.sports(); s++) {
+            String[] family = FAMILIES[s % FAMILIES.length];
+            gen.writeStartObject();
+            gen.writeNumberField("id", s + 1L);
+            gen.writeStringField("name", s < FAMILIES.length ? family[1] : family[1] + " " + s);
+            gen.writeNumberField("weight", s);
+            gen.writeStringField("family", family[0]);
+            gen.writeArrayFieldStart("regions");
+            for (int r = 0; r < scale.regionsPerSport(); r++) {
+                gen.writeStartObject();
+                gen.writeNumberField("id", (s + 1L) * 10_000 + r);
+                gen.writeStringField("name", "Region " + r);
+                gen.writeStringField("url", "region-" + r);
+                gen.writeArrayFieldStart("leagues");
+                for (int l = 0; l < scale.leaguesPerRegion(); l++) {
+                    long index = ((long) s * scale.regionsPerSport() + r) * scale.leaguesPerRegion() + l;
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", LEAGUE_ID_BASE + index);
+                    gen.writeStringField("name", "League " + r + "." + l);
+                    gen.writeStringField("url", "league-" + r + "-" + l);
+                    gen.writeBooleanField("top", l % 3 == 0);
+                    gen.writeNumberField("topOrder", (int) (index % 1000));
+                    gen.writeNumberField("prematch", scale.eventsPerLeague());
+                    gen.writeNumberField("inplay", 0);
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeEventList(JsonGenerator gen, long leagueId) throws IOException {
+        int count = leagueId < 0 ? 0 : scale.eventsPerLeague();
+        gen.writeStartObject();
+        gen.writeBooleanField("enabled", true);
+        gen.writeStringField("betline", "prematch");
+        gen.writeNumberField("totalCount", count);
+        gen.writeArrayFieldStart("events");
+        for (int e = 0; e < count; e++) {
+            writeEvent(gen, leagueId * EVENTS_PER_LEAGUE_LIMIT + e, priceEpoch(), false);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void writeEvent(JsonGenerator gen, long eventId, long epoch, boolean allMarkets) throws IOException {
+        long leagueIndex = eventId / EVENTS_PER_LEAGUE_LIMIT - LEAGUE_ID_BASE;
+        int e = (int) (eventId % EVENTS_PER_LEAGUE_LIMIT);
+        int markets = allMarkets ? scale.marketsPerEvent() : Math.min(1, scale.marketsPerEvent());
+
+        gen.writeStartObject();
+        gen.writeNumberField("id", eventId);
+        gen.writeStringField("name", "Home " + leagueIndex + "." + e + " - Away " + leagueIndex + "." + e);
+        gen.writeNumberField("kickoff", startedAt + (e + 1) * 3_600_000L + leagueIndex % 60 * 60_000L);
+        gen.writeStringField("betline", "prematch");
+        gen.writeBooleanField("open", true);
+        gen.writeStringField("status", "OPEN");
+        gen.writeArrayFieldStart("markets");
+        for (int m = 0; m < markets; m++) {
+            long marketId = eventId * 1_000 + m;
+            gen.writeStartObject();
+            gen.writeNumberField("id", marketId);
+            gen.writeStringField("name", m == 0 ? "Winner" : "Market " + m);
+            gen.writeBooleanField("open", m % 11 != 10);
+            gen.writeStringField("typeTag", "REGULAR");
+            gen.writeArrayFieldStart("runners");
+            for (int r = 0; r < scale.runnersPerMarket(); r++) {
+                long runnerId = marketId * 100 + r;
+                gen.writeStartObject();
+                gen.writeNumberField("id", runnerId);
+                gen.writeStringField("name", r < RUNNER_NAMES.length ? RUNNER_NAMES[r] : "Outcome " + r);
+                gen.writeBooleanField("open", true);
+                gen.writeNumberField("price", price(runnerId, epoch));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private static double price(long runnerId, long epoch) {
+        double base = 1.2 + Math.floorMod(runnerId * 31 + 7, 680) / 100.0;
+        double drift = 1 + 0.05 * Math.sin(epoch + runnerId % 7);
+        return Math.round(base * drift * 100) / 100.0;
+    }
+
+    private byte[] json(JsonWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            writer.write(gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        Scale scale = new Scale(
+                intOption(options, "sports", 4),
+                intOption(options, "regions", 50),
+                intOption(options, "leagues", 20),
+                intOption(options, "events", 10),
+                intOption(options, "markets", 100),
+                intOption(options, "runners", 3),
+                Duration.ofSeconds(intOption(options, "priceChangeSeconds", 30)));
+        Faults faults = new Faults(
+                Duration.ofMillis(intOption(options, "latencyMs", 50)),
+                Duration.ofMillis(intOption(options, "latencyP99Ms", 400)),
+                doubleOption(options, "rateLimited", 0.02),
+                doubleOption(options, "serverErrors", 0.01),
+                doubleOption(options, "resets", 0.005),
+                doubleOption(options, "slowBodies", 0.01),
+                Duration.ofMillis(intOption(options, "slowChunkMs", 200)));
+
+        try (FakeLeonServer server = start(intOption(options, "port", 8089), scale, faults)) {
+            System.out.println("Fake Leon API listening on " + server.baseUrl());
+            Thread.currentThread().join();
+        }
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private static double doubleOption(Map<String, String> options, String name, double defaultValue) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : defaultValue;
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator gen) throws IOException;
+    }
+
+    private record Reply(HttpResponseStatus status, byte[] body, String etag) { }
+
+    public record Scale(
+            int sports,
+            int regionsPerSport,
+            int leaguesPerRegion,
+            int eventsPerLeague,
+            int marketsPerEvent,
+            int runnersPerMarket,
+            Duration priceChangeInterval
+    ) {
+        public static Scale small() {
+            return new Scale(4, 2, 3, 3, 4, 3, Duration.ZERO);
+        }
+    }
+
+    public record Faults(
+            Duration medianLatency,
+            Duration p99Latency,
+            double rateLimitRate,
+            double serverErrorRate,
+            double resetRate,
+            double slowBodyRate,
+            Duration slowChunkDelay
+    ) {
+        public static Faults none() {
+            return new Faults(Duration.ZERO, Duration.ZERO, 0, 0, 0, 0, Duration.ZERO);
+        }
+
+        Duration sampleLatency(ThreadLocalRandom random) {
+            long median = medianLatency.toNanos();
+            if (median <= 0) {
+                return Duration.ZERO;
+            }
+            double sigma = Math.log(Math.max(p99Latency.toNanos(), median) / (double) median) / Z_99;
+            return Duration.ofNanos((long) (median * Math.exp(sigma * random.nextGaussian())));
+        }
+    }
+}
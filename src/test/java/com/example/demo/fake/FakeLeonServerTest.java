@@ -0,0 +1,126 @@
+package com.example.demo.fake;
+
+import com.example.demo.capture.ResponseCapture;
+import com.example.demo.codec.EventStreamDecoder;
+import com.example.demo.codec.NameInterner;
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.config.TestProperties;
+import com.example.demo.config.WebClientConfig;
+import com.example.demo.diff.OddsDiffEngine;
+import com.example.demo.output.PrintStreamSink;
+import com.example.demo.output.TextEventFormatter;
+import com.example.demo.service.LeonApiService;
+import com.example.demo.service.LeonBetsParser;
+import com.example.demo.store.TickStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FakeLeonServerTest {
+
+    private static final List<String> TARGET_SPORTS = List.of("Soccer", "Tennis", "IceHockey", "Basketball");
+
+    private FakeLeonServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void parse_PrintsTopLeagueEventsFromGeneratedTree() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), FakeLeonServer.Faults.none());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        StepVerifier.create(parser(properties(Duration.ofSeconds(5)), registry, out).parse())
+                .verifyComplete();
+
+        assertThat(registry.counter("leon.parser.events", "stage", "printed").count()).isEqualTo(16);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("Football, Region 0 League 0.0", "Winner");
+        assertThat(server.requests(FakeLeonServer.SPORTS)).isEqualTo(1);
+        assertThat(server.requests(FakeLeonServer.EVENT))
+                .isEqualTo(16 + (long) registry.counter("leon.api.retries", "endpoint", "event-all").count());
+    }
+
+    @Test
+    void parse_RetriesInjectedFaultsAndCompletes() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), new FakeLeonServer.Faults(
+                Duration.ofMillis(2), Duration.ofMillis(20), 0.1, 0.1, 0.05, 0.2, Duration.ofMillis(5)));
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        StepVerifier.create(parser(properties(Duration.ofSeconds(5)), registry, new ByteArrayOutputStream()).parse())
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+
+        double printed = registry.counter("leon.parser.events", "stage", "printed").count();
+        double dropped = registry.counter("leon.parser.events", "stage", "dropped").count();
+        assertThat(printed + dropped).isLessThanOrEqualTo(16);
+        assertThat(server.requests(FakeLeonServer.SPORTS)).isPositive();
+    }
+
+    @Test
+    void parse_CompletesEmptyWhenEveryRequestFails() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), new FakeLeonServer.Faults(
+                Duration.ZERO, Duration.ZERO, 0, 1, 0, 0, Duration.ZERO));
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        StepVerifier.create(parser(properties(Duration.ofSeconds(5)), registry, new ByteArrayOutputStream()).parse())
+                .verifyComplete();
+
+        assertThat(registry.counter("leon.parser.events", "stage", "printed").count()).isZero();
+        assertThat(server.injected("server_error")).isEqualTo(3);
+    }
+
+    @Test
+    void getEventDetails_RevalidatesWithEtag() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), FakeLeonServer.Faults.none());
+        LeonApiService api = apiService(properties(Duration.ZERO), new SimpleMeterRegistry());
+        long leagueId = server.firstLeagueId();
+        long eventId = leagueId * 1_000;
+
+        StepVerifier.create(api.getEventDetails(leagueId, eventId).then(api.getEventDetails(leagueId, eventId)))
+                .assertNext(event -> assertThat(event.markets()).hasSize(4))
+                .verifyComplete();
+
+        assertThat(server.requests(FakeLeonServer.EVENT)).isEqualTo(2);
+        assertThat(api.cacheStats().revalidations()).isEqualTo(1);
+    }
+
+    private LeonBetsParser parser(LeonApiProperties properties, MeterRegistry registry, ByteArrayOutputStream out) {
+        return new LeonBetsParser(apiService(properties, registry), properties, new OddsDiffEngine(),
+                new PrintStreamSink(new PrintStream(out, true, StandardCharsets.UTF_8)), new TextEventFormatter(),
+                TickStore.disabled(), registry);
+    }
+
+    private LeonApiService apiService(LeonApiProperties properties, MeterRegistry registry) {
+        WebClient webClient = new WebClientConfig().webClient(properties,
+                new JacksonConfig().objectMapper(new NameInterner()), registry, ResponseCapture.disabled());
+        return new LeonApiService(webClient, properties, new EventStreamDecoder(new ObjectMapper()), registry);
+    }
+
+    private LeonApiProperties properties(Duration cacheTtl) {
+        return TestProperties.bind(
+                "leon.api.base-url=" + server.baseUrl(),
+                "leon.api.retry.max-attempts=2",
+                "leon.api.cache.enabled=true",
+                "leon.api.cache.max-entries=100",
+                "leon.api.cache.ttl=" + cacheTtl,
+                "leon.parser.target-sports=" + String.join(",", TARGET_SPORTS));
+    }
+}
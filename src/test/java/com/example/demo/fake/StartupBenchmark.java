@@ -0,0 +1,92 @@
+package com.example.demo.fake;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@SuppressWarnings("PMD.SystemPrintln")
+public final class StartupBenchmark {
+
+    private static final Pattern FIRST_REQUEST = Pattern.compile("First API request sent (\\d+) ms after process start");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        String java = options.getOrDefault("java", "java");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+
+        List<Mode> modes = new ArrayList<>();
+        modes.add(new Mode("jar", Path.of(options.get("jar")), List.of(java, "-jar", options.get("jar"))));
+        modes.add(new Mode("jar+aot", Path.of(options.get("jar")),
+                List.of(java, "-Dspring.aot.enabled=true", "-jar", options.get("jar"))));
+        modes.add(new Mode("cds+aot", Path.of(options.get("cdsArchive")),
+                List.of(java, "-XX:SharedArchiveFile=" + options.get("cdsArchive"), "-Xlog:cds=off",
+                        "-Dspring.aot.enabled=true", "-jar", options.get("cdsJar"))));
+        modes.add(new Mode("native", Path.of(options.get("native")), List.of(options.get("native"))));
+
+        try (FakeLeonServer server = FakeLeonServer.start(FakeLeonServer.Scale.small(),
+                FakeLeonServer.Faults.none())) {
+            System.out.printf("%-10s %8s %8s %8s %10s%n", "mode", "runs", "min ms", "p50 ms", "total ms");
+            for (Mode mode : modes) {
+                if (!Files.exists(mode.artifact())) {
+                    System.out.printf("%-10s skipped, %s not built%n", mode.name(), mode.artifact());
+                    continue;
+                }
+                List<Long> firstRequest = new ArrayList<>();
+                List<Long> total = new ArrayList<>();
+                for (int i = 0; i < runs; i++) {
+                    long startedAt = System.nanoTime();
+                    firstRequest.add(run(mode.command(), server.baseUrl()));
+                    total.add((System.nanoTime() - startedAt) / 1_000_000);
+                }
+                firstRequest.sort(null);
+                total.sort(null);
+                System.out.printf("%-10s %8d %8d %8d %10d%n", mode.name(), runs, firstRequest.get(0),
+                        firstRequest.get(runs / 2), total.get(runs / 2));
+            }
+        }
+    }
+
+    private static long run(List<String> command, String baseUrl) throws IOException, InterruptedException {
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.add("--leon.api.base-url=" + baseUrl);
+        fullCommand.add("--leon.output.sink.async=false");
+        Process process = new ProcessBuilder(fullCommand).redirectErrorStream(true).start();
+
+        long firstRequest = -1;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = FIRST_REQUEST.matcher(line);
+                if (firstRequest < 0 && matcher.find()) {
+                    firstRequest = Long.parseLong(matcher.group(1));
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0 || firstRequest < 0) {
+            throw new IllegalStateException("Run failed with exit code " + exitCode + ": " + command);
+        }
+        return firstRequest;
+    }
+
+    private record Mode(String name, Path artifact, List<String> command) { }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiMetricsFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void filter_RecordsLatencyAndPayloadPerEndpoint() {
+        WebClient client = client(Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("[{\"id\":1}]")
+                .build()));
+
+        StepVerifier.create(client.get().uri("/api-2/betline/sports").retrieve().bodyToMono(String.class))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        Timer timer = registry.find(ApiMetricsFilter.REQUESTS)
+                .tag("endpoint", "sports").tag("outcome", "success").timer();
+        DistributionSummary bytes = registry.find(ApiMetricsFilter.RESPONSE_BYTES)
+                .tag("endpoint", "sports").summary();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(bytes).isNotNull();
+        assertThat(bytes.totalAmount()).isEqualTo(10);
+    }
+
+    @Test
+    void filter_TagsOutcomeByStatus() {
+        WebClient client = client(Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build()));
+
+        StepVerifier.create(client.get().uri("/api-2/betline/event/all?eventId=1")
+                        .retrieve().bodyToMono(String.class))
+                .expectError()
+                .verify();
+
+        assertThat(registry.find(ApiMetricsFilter.REQUESTS)
+                .tag("endpoint", "event-all").tag("outcome", "rate_limited").timer()).isNotNull();
+    }
+
+    @Test
+    void filter_RecordsConnectionFailures() {
+        WebClient client = client(Mono.error(new IOException("Connection reset")));
+
+        StepVerifier.create(client.get().uri("/api-2/betline/events/all").retrieve().bodyToMono(String.class))
+                .expectError(IOException.class)
+                .verify();
+
+        assertThat(registry.find(ApiMetricsFilter.REQUESTS)
+                .tag("endpoint", "events-all").tag("outcome", "io_error").timer()).isNotNull();
+    }
+
+    @Test
+    void filter_TagsCancelledBodiesAsCancelled() {
+        WebClient client = client(Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(Flux.never())
+                .build()));
+
+        StepVerifier.create(client.get().uri("/api-2/betline/event/all?eventId=1")
+                        .retrieve().bodyToMono(String.class))
+                .expectSubscription()
+                .thenCancel()
+                .verify();
+
+        assertThat(registry.find(ApiMetricsFilter.REQUESTS)
+                .tag("endpoint", "event-all").tag("outcome", "cancelled").timer()).isNotNull();
+        assertThat(registry.find(ApiMetricsFilter.REQUESTS)
+                .tag("endpoint", "event-all").tag("outcome", "success").timer()).isNull();
+    }
+
+    private WebClient client(Mono<ClientResponse> response) {
+        return WebClient.builder()
+                .baseUrl("https://leon.bet")
+                .exchangeFunction(request -> response)
+                .filter(new ApiMetricsFilter(registry))
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.output;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncOutputSinkTest {
+
+    @Test
+    void flush_WritesAllRecordsInOrder() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        AsyncOutputSink sink = new AsyncOutputSink(target, false, 128, 1024, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 100; i++) {
+            sink.write(("line " + i + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        sink.flush();
+
+        String[] lines = target.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(100);
+        assertThat(lines[0]).isEqualTo("line 0");
+        assertThat(lines[99]).isEqualTo("line 99");
+        sink.close();
+    }
+
+    @Test
+    void write_BatchesRecordsUntilBatchIsFull() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        AsyncOutputSink sink = new AsyncOutputSink(target, false, 256, 64, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 32; i++) {
+            sink.write("0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+        }
+        sink.flush();
+
+        assertThat(target.size()).isEqualTo(32 * 16);
+        assertThat(sink.stats().bytesWritten()).isEqualTo(32 * 16);
+        assertThat(sink.stats().batchesWritten()).isEqualTo(8);
+        sink.close();
+    }
+
+    @Test
+    void write_FlushesPartialBatchAfterInterval() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        ByteArrayOutputStream target = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                if (size() > 0) {
+                    flushed.countDown();
+                }
+            }
+        };
+        AsyncOutputSink sink = new AsyncOutputSink(target, false, 16, 1024, Duration.ofMillis(20));
+
+        sink.write("tick\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(flushed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(target.toString(StandardCharsets.UTF_8)).isEqualTo("tick\n");
+        sink.close();
+    }
+
+    @Test
+    void write_FullQueue_BlocksCallerAndDeliversEveryRecord() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        AsyncOutputSink sink = new AsyncOutputSink(gatedTarget(release, written), false, 2, 4,
+                Duration.ofSeconds(10));
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                sink.write(("rec" + i).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        producer.start();
+        producer.join(200);
+
+        assertThat(producer.isAlive()).isTrue();
+        assertThat(sink.isFull()).isTrue();
+
+        release.countDown();
+        producer.join(5000);
+        sink.flush();
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(sink.stats().stalls()).isPositive();
+        assertThat(written.toString(StandardCharsets.UTF_8))
+                .isEqualTo("rec0rec1rec2rec3rec4rec5rec6rec7rec8rec9");
+        sink.close();
+    }
+
+    @Test
+    void write_FullQueueOnEventLoop_KeepsEveryRecordWithoutBlocking() {
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        AsyncOutputSink sink = new AsyncOutputSink(gatedTarget(release, written), false, 2, 4,
+                Duration.ofSeconds(10));
+
+        Mono.fromRunnable(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        sink.write(("rec" + i).getBytes(StandardCharsets.UTF_8));
+                    }
+                })
+                .subscribeOn(Schedulers.single())
+                .block(Duration.ofSeconds(5));
+
+        assertThat(sink.isFull()).isTrue();
+        assertThat(sink.stats().stalls()).isZero();
+
+        release.countDown();
+        sink.flush();
+        assertThat(written.toString(StandardCharsets.UTF_8))
+                .isEqualTo("rec0rec1rec2rec3rec4rec5rec6rec7rec8rec9");
+        sink.close();
+    }
+
+    @Test
+    void close_DrainsQueueAndRejectsFurtherWrites() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        AsyncOutputSink sink = new AsyncOutputSink(target, true, 16, 1024, Duration.ofSeconds(10));
+
+        sink.write("last\n".getBytes(StandardCharsets.UTF_8));
+        sink.close();
+
+        assertThat(target.toString(StandardCharsets.UTF_8)).isEqualTo("last\n");
+        assertThatThrownBy(() -> sink.write(new byte[] {1}))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void close_LogsTargetFailureInsteadOfThrowing() {
+        OutputStream failingTarget = new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException {
+                throw new IOException("disk gone");
+            }
+        };
+        AsyncOutputSink sink = new AsyncOutputSink(failingTarget, true, 16, 1024, Duration.ofSeconds(10));
+
+        sink.write("last\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThatCode(sink::close).doesNotThrowAnyException();
+        assertThat(failingTarget.toString()).isEqualTo("last\n");
+    }
+
+    private static OutputStream gatedTarget(CountDownLatch release, ByteArrayOutputStream written) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                written.write(b, off, len);
+            }
+        };
+    }
+}
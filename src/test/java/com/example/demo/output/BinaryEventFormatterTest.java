@@ -0,0 +1,123 @@
+package com.example.demo.output;
+
+import com.example.demo.diff.ChangeType;
+import com.example.demo.diff.RunnerChange;
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Market;
+import com.example.demo.model.Region;
+import com.example.demo.model.Runner;
+import com.example.demo.model.Sport;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryEventFormatterTest {
+
+    private static final EventSource SOURCE = new EventSource(
+            new Sport(1L, "Football", "Soccer", List.of()),
+            new Region(10L, "England", List.of()),
+            new League(100L, "Premier League", true, 1, 5));
+
+    private final BinaryEventFormatter formatter = new BinaryEventFormatter();
+
+    @Test
+    void writeEvent_WritesLengthPrefixedRecord() throws IOException {
+        Event event = new Event(1000L, "Team A - Team B", 1_700_000_000_000L, List.of(
+                new Market(1L, "Winner", true, List.of(
+                        new Runner(11L, "1", 1.95, true),
+                        new Runner(12L, "2", 3.5, false)))));
+        RecordBuffer out = new RecordBuffer(64);
+
+        formatter.writeEvent(SOURCE, event, out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(in.readInt()).isEqualTo(out.size() - Integer.BYTES);
+        assertThat(in.readByte()).isEqualTo(BinaryEventFormatter.EVENT_RECORD);
+        assertThat(in.readLong()).isEqualTo(1000L);
+        assertThat(in.readLong()).isEqualTo(1_700_000_000_000L);
+        assertThat(readString(in)).isEqualTo("Team A - Team B");
+        assertThat(in.readLong()).isEqualTo(100L);
+        assertThat(readString(in)).isEqualTo("Football");
+        assertThat(readString(in)).isEqualTo("England");
+        assertThat(readString(in)).isEqualTo("Premier League");
+        assertThat(in.readInt()).isEqualTo(1);
+        assertThat(in.readLong()).isEqualTo(1L);
+        assertThat(readString(in)).isEqualTo("Winner");
+        assertThat(in.readInt()).isEqualTo(1);
+        assertThat(in.readLong()).isEqualTo(11L);
+        assertThat(readString(in)).isEqualTo("1");
+        assertThat(in.readDouble()).isEqualTo(1.95);
+        assertThat(in.available()).isZero();
+    }
+
+    @Test
+    void writeChanges_AppendsRecordsBackToBack() throws IOException {
+        Event event = new Event(1000L, null, 1_700_000_000_000L, List.of());
+        List<RunnerChange> changes = List.of(
+                new RunnerChange(1000L, 1L, "Winner", 11L, "1", ChangeType.REMOVED, 1.95, Double.NaN));
+        RecordBuffer out = new RecordBuffer(16);
+
+        formatter.writeChanges(SOURCE, event, changes, out);
+        int first = out.size();
+        formatter.writeChanges(SOURCE, event, changes, out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        int length = in.readInt();
+        assertThat(length).isEqualTo(first - Integer.BYTES);
+        assertThat(in.skipBytes(length)).isEqualTo(length);
+        assertThat(in.readInt()).isEqualTo(length);
+        assertThat(in.readByte()).isEqualTo(BinaryEventFormatter.CHANGES_RECORD);
+    }
+
+    @Test
+    void writeChanges_CountsAboveShortRangeDoNotWrap() throws IOException {
+        Event event = new Event(1000L, null, 1_700_000_000_000L, List.of());
+        List<RunnerChange> changes = Collections.nCopies(40_000,
+                new RunnerChange(1000L, 1L, "Winner", 11L, "1", ChangeType.REMOVED, 1.95, Double.NaN));
+        RecordBuffer out = new RecordBuffer(16);
+
+        formatter.writeChanges(SOURCE, event, changes, out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        in.readInt();
+        in.readByte();
+        in.readLong();
+        in.readLong();
+        readString(in);
+        in.readLong();
+        readString(in);
+        readString(in);
+        readString(in);
+        assertThat(in.readInt()).isEqualTo(40_000);
+    }
+
+    @Test
+    void writeEvent_WritesLongNamesAsStandardUtf8() throws IOException {
+        String name = "Кубок ".repeat(20_000);
+        Event event = new Event(1000L, name, 1_700_000_000_000L, List.of());
+        RecordBuffer out = new RecordBuffer(16);
+
+        formatter.writeEvent(SOURCE, event, out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        in.readInt();
+        in.readByte();
+        in.readLong();
+        in.readLong();
+        assertThat(in.readInt()).isEqualTo(name.getBytes(StandardCharsets.UTF_8).length).isGreaterThan(65_535);
+        assertThat(new String(in.readNBytes(name.getBytes(StandardCharsets.UTF_8).length), StandardCharsets.UTF_8))
+                .isEqualTo(name);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+}
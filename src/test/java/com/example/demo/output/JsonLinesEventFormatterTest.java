@@ -0,0 +1,72 @@
+package com.example.demo.output;
+
+import com.example.demo.diff.ChangeType;
+import com.example.demo.diff.RunnerChange;
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Market;
+import com.example.demo.model.Region;
+import com.example.demo.model.Runner;
+import com.example.demo.model.Sport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLinesEventFormatterTest {
+
+    private static final EventSource SOURCE = new EventSource(
+            new Sport(1L, "Football", "Soccer", List.of()),
+            new Region(10L, "England", List.of()),
+            new League(100L, "Premier League", true, 1, 5));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonLinesEventFormatter formatter = new JsonLinesEventFormatter(mapper.getFactory());
+
+    @Test
+    void writeEvent_WritesOneJsonObjectPerLineWithOpenMarketsOnly() throws Exception {
+        Event event = new Event(1000L, "Team A - Team B", 1_700_000_000_000L, List.of(
+                new Market(1L, "Winner", true, List.of(
+                        new Runner(11L, "1", 1.95, true),
+                        new Runner(12L, "2", 3.5, false))),
+                new Market(2L, "Total", false, List.of())));
+        RecordBuffer out = new RecordBuffer(256);
+
+        formatter.writeEvent(SOURCE, event, out);
+        formatter.writeEvent(SOURCE, event, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+
+        JsonNode json = mapper.readTree(lines[0]);
+        assertThat(json.get("eventId").asLong()).isEqualTo(1000L);
+        assertThat(json.get("sport").asText()).isEqualTo("Football");
+        assertThat(json.get("league").asText()).isEqualTo("Premier League");
+        assertThat(json.get("markets")).hasSize(1);
+        assertThat(json.get("markets").get(0).get("runners")).hasSize(1);
+        assertThat(json.get("markets").get(0).get("runners").get(0).get("price").asDouble()).isEqualTo(1.95);
+    }
+
+    @Test
+    void writeChanges_OmitsMissingPrices() throws Exception {
+        Event event = new Event(1000L, "Team A - Team B", 1_700_000_000_000L, List.of());
+        List<RunnerChange> changes = List.of(
+                new RunnerChange(1000L, 1L, "Winner", 11L, "1", ChangeType.PRICE_CHANGED, 1.95, 2.05),
+                new RunnerChange(1000L, 1L, "Winner", 12L, "2", ChangeType.ADDED, Double.NaN, 3.5));
+        RecordBuffer out = new RecordBuffer(256);
+
+        formatter.writeChanges(SOURCE, event, changes, out);
+
+        JsonNode json = mapper.readTree(out.toString(StandardCharsets.UTF_8));
+        JsonNode priceChange = json.get("changes").get(0);
+        JsonNode added = json.get("changes").get(1);
+        assertThat(priceChange.get("type").asText()).isEqualTo("price_changed");
+        assertThat(priceChange.get("oldPrice").asDouble()).isEqualTo(1.95);
+        assertThat(added.has("oldPrice")).isFalse();
+        assertThat(added.get("newPrice").asDouble()).isEqualTo(3.5);
+    }
+}
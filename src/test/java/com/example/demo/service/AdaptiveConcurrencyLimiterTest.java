@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final RuntimeException OVERLOAD = new IllegalStateException("429");
+
+    @Test
+    void limit_queuesCallsAboveCurrentLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 8, 2);
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        Sinks.One<String> third = Sinks.one();
+
+        limiter.limit(first.asMono()).subscribe();
+        limiter.limit(second.asMono()).subscribe();
+        limiter.limit(third.asMono()).subscribe();
+
+        assertThat(limiter.stats().inFlight()).isEqualTo(2);
+        assertThat(limiter.stats().queued()).isEqualTo(1);
+
+        first.tryEmitValue("done");
+
+        assertThat(limiter.stats().inFlight()).isEqualTo(2);
+        assertThat(limiter.stats().queued()).isZero();
+    }
+
+    @Test
+    void limit_overloadSignal_decreasesLimitMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 8, 8);
+
+        limiter.limit(Mono.error(OVERLOAD)).onErrorResume(e -> Mono.empty()).block();
+
+        assertThat(limiter.stats().limit()).isEqualTo(4);
+    }
+
+    @Test
+    void limit_neverDropsBelowFloor() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 8, 3);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.limit(Mono.error(OVERLOAD)).onErrorResume(e -> Mono.empty()).block();
+        }
+
+        assertThat(limiter.stats().limit()).isEqualTo(2);
+    }
+
+    @Test
+    void limit_saturatedSuccesses_increaseLimitUpToCeiling() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 2, 1);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.limit(Mono.just("ok")).block();
+        }
+
+        assertThat(limiter.stats().limit()).isEqualTo(2);
+    }
+
+    @Test
+    void limit_nonOverloadError_keepsLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 8, 4);
+
+        limiter.limit(Mono.error(new IllegalArgumentException("404")))
+                .onErrorResume(e -> Mono.empty())
+                .block();
+
+        assertThat(limiter.stats().limit()).isEqualTo(4);
+        assertThat(limiter.stats().inFlight()).isZero();
+    }
+
+    @Test
+    void limit_cancelWhileQueued_releasesSlot() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 8, 1);
+        Sinks.One<String> running = Sinks.one();
+
+        limiter.limit(running.asMono()).subscribe();
+        Disposable queued = limiter.limit(Mono.just("queued")).subscribe();
+        queued.dispose();
+        running.tryEmitValue("done");
+
+        assertThat(limiter.stats().queued()).isZero();
+        assertThat(limiter.stats().inFlight()).isZero();
+    }
+
+    @Test
+    void limit_disabled_capsCallsAtFixedBudget() {
+        LeonApiProperties.Api.Concurrency config = new LeonApiProperties.Api.Concurrency(
+                false, 1, 8, 1, 0.5, Duration.ofSeconds(2));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, 2, e -> e == OVERLOAD);
+        Sinks.One<String> first = Sinks.one();
+
+        limiter.limit(first.asMono()).subscribe();
+        limiter.limit(Mono.error(OVERLOAD)).onErrorResume(e -> Mono.empty()).subscribe();
+        limiter.limit(Mono.<String>never()).subscribe();
+        limiter.limit(Mono.<String>never()).subscribe();
+
+        assertThat(limiter.stats().limit()).isEqualTo(2);
+        assertThat(limiter.stats().inFlight()).isEqualTo(2);
+        assertThat(limiter.stats().queued()).isEqualTo(1);
+
+        first.tryEmitValue("done");
+
+        assertThat(limiter.stats().limit()).isEqualTo(2);
+        assertThat(limiter.stats().inFlight()).isEqualTo(2);
+        assertThat(limiter.stats().queued()).isZero();
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int min, int max, int initial) {
+        LeonApiProperties.Api.Concurrency config = new LeonApiProperties.Api.Concurrency(
+                true, min, max, initial, 0.5, Duration.ofSeconds(2));
+        return new AdaptiveConcurrencyLimiter(config, max, e -> e == OVERLOAD);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.model.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventDetailsCacheTest {
+
+    private static final long NOW = 1_704_067_200_000L;
+
+    private EventDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EventDetailsCache(new LeonApiProperties.Api.Cache(
+                true, 2, Duration.ofSeconds(5), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void onResponse_storesEntryWithValidators() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        headers.setContentLength(512);
+
+        cache.onResponse(1L, null, new ResponseEntity<>(event(1L), headers, HttpStatus.OK), 0, NOW);
+
+        EventDetailsCache.Entry entry = cache.lookup(1L, NOW);
+        assertThat(entry).isNotNull();
+        assertThat(entry.etag()).isEqualTo("\"v1\"");
+        assertThat(entry.hasValidators()).isTrue();
+        assertThat(entry.bodyBytes()).isEqualTo(512);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void onResponse_prefersMeasuredBodySizeOverContentLength() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentLength(128);
+
+        cache.onResponse(1L, null, new ResponseEntity<>(event(1L), headers, HttpStatus.OK), 2048, NOW);
+
+        assertThat(cache.lookup(1L, NOW).bodyBytes()).isEqualTo(2048);
+    }
+
+    @Test
+    void isFresh_expiresAfterTtl() {
+        cache.onResponse(1L, null, ResponseEntity.ok(event(1L)), 0, NOW);
+        EventDetailsCache.Entry entry = cache.lookup(1L, NOW);
+
+        assertThat(cache.isFresh(entry, NOW + 4_999)).isTrue();
+        assertThat(cache.isFresh(entry, NOW + 5_000)).isFalse();
+        assertThat(entry.hasValidators()).isFalse();
+    }
+
+    @Test
+    void lookup_evictsEntriesOlderThanMaxStale() {
+        cache.onResponse(1L, null, ResponseEntity.ok(event(1L)), 0, NOW);
+
+        assertThat(cache.lookup(1L, NOW + 60_000)).isNotNull();
+        assertThat(cache.lookup(1L, NOW + 60_001)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void notModified_refreshesEntryAndCountsSavedBytes() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        cache.onResponse(1L, null, new ResponseEntity<>(event(1L), headers, HttpStatus.OK), 1024, NOW);
+        EventDetailsCache.Entry stale = cache.lookup(1L, NOW + 10_000);
+
+        Event event = cache.onResponse(1L, stale, ResponseEntity.status(HttpStatus.NOT_MODIFIED).build(), 0,
+                NOW + 10_000);
+
+        assertThat(event.id()).isEqualTo(1L);
+        assertThat(cache.isFresh(cache.lookup(1L, NOW + 10_000), NOW + 10_000)).isTrue();
+        assertThat(cache.stats().revalidations()).isEqualTo(1);
+        assertThat(cache.stats().bytesSaved()).isEqualTo(1024);
+    }
+
+    @Test
+    void store_evictsLeastRecentlyUsedEntry() {
+        cache.onResponse(1L, null, ResponseEntity.ok(event(1L)), 0, NOW);
+        cache.onResponse(2L, null, ResponseEntity.ok(event(2L)), 0, NOW);
+        cache.lookup(1L, NOW);
+
+        cache.onResponse(3L, null, ResponseEntity.ok(event(3L)), 0, NOW);
+
+        assertThat(cache.lookup(1L, NOW)).isNotNull();
+        assertThat(cache.lookup(2L, NOW)).isNull();
+        assertThat(cache.lookup(3L, NOW)).isNotNull();
+    }
+
+    private static Event event(long id) {
+        return new Event(id, "Match " + id, NOW, List.of());
+    }
+}
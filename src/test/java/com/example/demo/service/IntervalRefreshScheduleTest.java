@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Sport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalRefreshScheduleTest {
+
+    private static final long NOW = 1_704_067_200_000L;
+
+    private final Sport soccer = new Sport(1L, "Football", "Soccer", List.of());
+    private final Sport tennis = new Sport(2L, "Tennis", "Tennis", List.of());
+    private final League league = new League(10L, "Premier League", true, 1, 10);
+    private final League pinnedLeague = new League(20L, "Champions League", true, 2, 10);
+
+    private IntervalRefreshSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        LeonApiProperties.Parser.Polling polling = new LeonApiProperties.Parser.Polling(
+                true,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(60),
+                Duration.ofMinutes(10),
+                Duration.ofHours(2),
+                Duration.ofSeconds(10),
+                Map.of("Soccer", Duration.ofSeconds(30)),
+                Map.of(20L, Duration.ofSeconds(5)),
+                Duration.ofDays(1),
+                Duration.ofMinutes(10),
+                2
+        );
+        schedule = new IntervalRefreshSchedule(polling);
+    }
+
+    @Test
+    void isDue_neverRefreshedLeague_returnsTrue() {
+        assertThat(schedule.isDue(soccer, league, NOW)).isTrue();
+    }
+
+    @Test
+    void isDue_respectsSportInterval() {
+        schedule.onRefreshed(soccer, league, List.of(), NOW);
+
+        assertThat(schedule.isDue(soccer, league, NOW + 29_000)).isFalse();
+        assertThat(schedule.isDue(soccer, league, NOW + 30_000)).isTrue();
+    }
+
+    @Test
+    void isDue_fallsBackToDefaultInterval() {
+        schedule.onRefreshed(tennis, league, List.of(), NOW);
+
+        assertThat(schedule.isDue(tennis, league, NOW + 59_000)).isFalse();
+        assertThat(schedule.isDue(tennis, league, NOW + 60_000)).isTrue();
+    }
+
+    @Test
+    void isDue_leagueIntervalOverridesSportInterval() {
+        schedule.onRefreshed(soccer, pinnedLeague, List.of(), NOW);
+
+        assertThat(schedule.isDue(soccer, pinnedLeague, NOW + 5_000)).isTrue();
+    }
+
+    @Test
+    void isDue_kickoffWithinWindow_refreshesMoreOften() {
+        Event soon = new Event(1L, "Soon", NOW + Duration.ofMinutes(30).toMillis(), List.of());
+        Event later = new Event(2L, "Later", NOW + Duration.ofDays(2).toMillis(), List.of());
+        schedule.onRefreshed(soccer, league, List.of(later, soon), NOW);
+
+        assertThat(schedule.isDue(soccer, league, NOW + 9_000)).isFalse();
+        assertThat(schedule.isDue(soccer, league, NOW + 10_000)).isTrue();
+    }
+
+    @Test
+    void isDue_kickoffOutsideWindow_usesRegularInterval() {
+        Event later = new Event(1L, "Later", NOW + Duration.ofDays(2).toMillis(), List.of());
+        schedule.onRefreshed(soccer, league, List.of(later), NOW);
+
+        assertThat(schedule.isDue(soccer, league, NOW + 10_000)).isFalse();
+    }
+
+    @Test
+    void isDue_distantKickoff_refreshesLessOften() {
+        Event distant = new Event(1L, "Distant", NOW + Duration.ofDays(3).toMillis(), List.of());
+        schedule.onRefreshed(soccer, league, List.of(distant), NOW);
+
+        assertThat(schedule.isDue(soccer, league, NOW + 60_000)).isFalse();
+        assertThat(schedule.isDue(soccer, league, NOW + 600_000)).isTrue();
+    }
+
+    @Test
+    void dueAt_ordersNeverRefreshedFirstThenByDeadline() {
+        Event soon = new Event(1L, "Soon", NOW + Duration.ofMinutes(30).toMillis(), List.of());
+        schedule.onRefreshed(soccer, league, List.of(soon), NOW);
+        League tennisLeague = new League(30L, "ATP", true, 3, 10);
+        schedule.onRefreshed(tennis, tennisLeague, List.of(), NOW);
+
+        assertThat(schedule.dueAt(soccer, pinnedLeague, NOW)).isEqualTo(Long.MIN_VALUE);
+        assertThat(schedule.dueAt(soccer, league, NOW)).isEqualTo(NOW + 10_000);
+        assertThat(schedule.dueAt(tennis, tennisLeague, NOW)).isEqualTo(NOW + 60_000);
+        assertThat(schedule.maxLeaguesPerCycle()).isEqualTo(2);
+    }
+
+    @Test
+    void onRefreshed_countsRefreshes() {
+        schedule.onRefreshed(soccer, league, List.of(), NOW);
+        schedule.onRefreshed(soccer, pinnedLeague, List.of(), NOW);
+
+        assertThat(schedule.refreshCount()).isEqualTo(2);
+    }
+}
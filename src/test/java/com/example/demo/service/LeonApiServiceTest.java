@@ -1,20 +1,40 @@
 package com.example.demo.service;
 
+import com.example.demo.codec.EventStreamDecoder;
+import com.example.demo.codec.ResponseDecompressionFilter;
 import com.example.demo.config.LeonApiProperties;
+import com.example.demo.config.TestProperties;
 import com.example.demo.model.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,33 +43,32 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class LeonApiServiceTest {
 
+    private static final String EVENT_JSON = """
+            {"id":1,"name":"Match","kickoff":1704067200000,"markets":[]}""";
+
     @Mock
     private WebClient webClient;
 
     @Mock
+    @SuppressWarnings("rawtypes")
     private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
 
     @Mock
+    @SuppressWarnings("rawtypes")
     private WebClient.RequestHeadersSpec requestHeadersSpec;
 
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
+    private LeonApiProperties properties;
+    private SimpleMeterRegistry registry;
     private LeonApiService apiService;
 
     @BeforeEach
     void setUp() {
-        LeonApiProperties properties = new LeonApiProperties(
-                new LeonApiProperties.Api(
-                        "https://leon.bet",
-                        Duration.ofSeconds(30),
-                        new LeonApiProperties.Api.Retry(1, Duration.ofMillis(100)),
-                        new LeonApiProperties.Api.Http("Mozilla/5.0 Test", 16),
-                        new LeonApiProperties.Api.CircuitBreaker(false, 50, 10, Duration.ofSeconds(30), 3)
-                ),
-                new LeonApiProperties.Parser(3, 2, List.of("Soccer"))
-        );
-        apiService = new LeonApiService(webClient, properties);
+        properties = TestProperties.bind();
+        registry = new SimpleMeterRegistry();
+        apiService = new LeonApiService(webClient, properties, new EventStreamDecoder(new ObjectMapper()), registry);
     }
 
     @Test
@@ -60,11 +79,8 @@ class LeonApiServiceTest {
                 new Sport(2L, "Tennis", "Tennis", List.of())
         );
 
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+        stubRetrieve();
+        when(responseSpec.bodyToMono(ArgumentMatchers.<ParameterizedTypeReference<List<Sport>>>any()))
                 .thenReturn(Mono.just(expectedSports));
 
         // When & Then
@@ -77,14 +93,29 @@ class LeonApiServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getSports_concurrentCalls_meterCoalescedAndExecutedFlights() {
+        Sinks.One<List<Sport>> response = Sinks.one();
+        stubRetrieve();
+        when(responseSpec.bodyToMono(ArgumentMatchers.<ParameterizedTypeReference<List<Sport>>>any()))
+                .thenReturn(response.asMono());
+
+        StepVerifier.create(Mono.zip(apiService.getSports(), apiService.getSports()))
+                .then(() -> response.tryEmitValue(List.of()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(registry.get("leon.api.singleflight.calls").tags("flight", "sports", "result", "executed")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("leon.api.singleflight.calls").tags("flight", "sports", "result", "coalesced")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
     @Test
     void getSports_onError_returnsEmptyList() {
         // Given
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+        stubRetrieve();
+        when(responseSpec.bodyToMono(ArgumentMatchers.<ParameterizedTypeReference<List<Sport>>>any()))
                 .thenReturn(Mono.error(new RuntimeException("Connection failed")));
 
         // When & Then
@@ -99,10 +130,7 @@ class LeonApiServiceTest {
         Event event = new Event(1L, "Match A vs B", System.currentTimeMillis(), List.of());
         EventsResponse expectedResponse = new EventsResponse(List.of(event));
 
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        stubRetrieve();
         when(responseSpec.bodyToMono(EventsResponse.class))
                 .thenReturn(Mono.just(expectedResponse));
 
@@ -118,10 +146,7 @@ class LeonApiServiceTest {
     @Test
     void getEventsByLeague_onError_returnsEmptyResponse() {
         // Given
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        stubRetrieve();
         when(responseSpec.bodyToMono(EventsResponse.class))
                 .thenReturn(Mono.error(new RuntimeException("API error")));
 
@@ -131,6 +156,42 @@ class LeonApiServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void streamEventsByLeague_decodesEventsAcrossChunks() {
+        // Given
+        String json = """
+                {"enabled":true,"events":[
+                    {"id":1,"name":"Match A vs B","kickoff":1704067200000,"markets":[]},
+                    {"id":2,"name":"Match C vs D","kickoff":1704067200000,"markets":[]}
+                ]}
+                """;
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        int split = json.indexOf("Match C");
+
+        stubRetrieve();
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(Flux.just(
+                DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, 0, split)),
+                DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, split, bytes.length))));
+
+        // When & Then
+        StepVerifier.create(apiService.streamEventsByLeague(123L))
+                .assertNext(event -> assertThat(event.name()).isEqualTo("Match A vs B"))
+                .assertNext(event -> assertThat(event.name()).isEqualTo("Match C vs D"))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamEventsByLeague_onError_propagatesFailure() {
+        // Given
+        stubRetrieve();
+        when(responseSpec.bodyToFlux(DataBuffer.class))
+                .thenReturn(Flux.error(new RuntimeException("API error")));
+
+        // When & Then
+        StepVerifier.create(apiService.streamEventsByLeague(123L))
+                .verifyErrorMessage("API error");
+    }
+
     @Test
     void getEventDetails_returnsEvent() {
         // Given
@@ -138,15 +199,12 @@ class LeonApiServiceTest {
         Market market = new Market(1L, "Winner", true, List.of(runner));
         Event expectedEvent = new Event(1L, "Match", System.currentTimeMillis(), List.of(market));
 
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        stubRetrieve();
         when(responseSpec.bodyToMono(Event.class))
                 .thenReturn(Mono.just(expectedEvent));
 
         // When & Then
-        StepVerifier.create(apiService.getEventDetails(1L))
+        StepVerifier.create(apiService.getEventDetails(10L, 1L))
                 .assertNext(event -> {
                     assertThat(event.name()).isEqualTo("Match");
                     assertThat(event.markets()).hasSize(1);
@@ -155,18 +213,157 @@ class LeonApiServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getEventDetails_withCircuitBreaker_scopesBreakerByLeague() {
+        LeonApiService guarded = new LeonApiService(webClient,
+                TestProperties.bind("leon.api.circuit-breaker.enabled=true"),
+                new EventStreamDecoder(new ObjectMapper()), new SimpleMeterRegistry());
+        stubRetrieve();
+        when(responseSpec.bodyToMono(Event.class))
+                .thenReturn(Mono.just(new Event(1L, "Match", 0L, List.of())));
+
+        guarded.getEventDetails(10L, 1L).block();
+        guarded.getEventDetails(20L, 2L).block();
+
+        assertThat(guarded.circuitBreakerStates())
+                .containsOnlyKeys(ScopedResilience.details(10L), ScopedResilience.details(20L));
+    }
+
     @Test
     void getEventDetails_onError_returnsEmpty() {
         // Given
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        stubRetrieve();
         when(responseSpec.bodyToMono(Event.class))
                 .thenReturn(Mono.error(new RuntimeException("Event not found")));
 
         // When & Then
-        StepVerifier.create(apiService.getEventDetails(999L))
+        StepVerifier.create(apiService.getEventDetails(10L, 999L))
+                .verifyComplete();
+    }
+
+    @Test
+    void getEventDetails_withCache_servesFreshEntryWithoutRequest() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    return Mono.just(eventResponse(null));
+                })
+                .build();
+        LeonApiService cachedService = new LeonApiService(
+                client, withCache(Duration.ofMinutes(1)), new EventStreamDecoder(new ObjectMapper()),
+                new SimpleMeterRegistry());
+
+        // When & Then
+        StepVerifier.create(cachedService.getEventDetails(10L, 1L).then(cachedService.getEventDetails(10L, 1L)))
+                .assertNext(event -> assertThat(event.name()).isEqualTo("Match"))
+                .verifyComplete();
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cachedService.cacheStats().hits()).isEqualTo(1);
+        assertThat(cachedService.cacheStats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void getEventDetails_withCache_revalidatesWithEtag() {
+        // Given
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> {
+                    if (request.headers().getIfNoneMatch().contains("\"v1\"")) {
+                        return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+                    }
+                    return Mono.just(eventResponse("\"v1\""));
+                })
+                .build();
+        LeonApiService cachedService = new LeonApiService(
+                client, withCache(Duration.ZERO), new EventStreamDecoder(new ObjectMapper()),
+                new SimpleMeterRegistry());
+
+        // When & Then
+        StepVerifier.create(cachedService.getEventDetails(10L, 1L).then(cachedService.getEventDetails(10L, 1L)))
+                .assertNext(event -> assertThat(event.name()).isEqualTo("Match"))
                 .verifyComplete();
+        assertThat(cachedService.cacheStats().revalidations()).isEqualTo(1);
+        assertThat(cachedService.cacheStats().bytesSaved()).isEqualTo(EVENT_JSON.length());
+    }
+
+    @Test
+    void getEventDetails_withCache_sizesCompressedEntriesByDecodedBody() throws IOException {
+        // Given
+        byte[] compressed = gzip(EVENT_JSON.getBytes(StandardCharsets.UTF_8));
+        WebClient client = WebClient.builder()
+                .filter(new ResponseDecompressionFilter(new SimpleMeterRegistry(), 1024 * 1024))
+                .exchangeFunction(request -> request.headers().getIfNoneMatch().contains("\"v1\"")
+                        ? Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build())
+                        : Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                                .header(HttpHeaders.ETAG, "\"v1\"")
+                                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(compressed)))
+                                .build()))
+                .build();
+        LeonApiService cachedService = new LeonApiService(
+                client, withCache(Duration.ZERO), new EventStreamDecoder(new ObjectMapper()),
+                new SimpleMeterRegistry());
+
+        // When & Then
+        StepVerifier.create(cachedService.getEventDetails(10L, 1L).then(cachedService.getEventDetails(10L, 1L)))
+                .assertNext(event -> assertThat(event.name()).isEqualTo("Match"))
+                .verifyComplete();
+        assertThat(cachedService.cacheEntries().get(1L).bodyBytes()).isEqualTo(EVENT_JSON.length());
+        assertThat(cachedService.cacheStats().bytesSaved()).isEqualTo(EVENT_JSON.length());
+    }
+
+    @Test
+    void getEventDetails_withCache_servesStaleEntryOnError() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> calls.getAndIncrement() == 0
+                        ? Mono.just(eventResponse(null))
+                        : Mono.just(ClientResponse.create(HttpStatus.BAD_GATEWAY).build()))
+                .build();
+        LeonApiService cachedService = new LeonApiService(
+                client, withCache(Duration.ZERO), new EventStreamDecoder(new ObjectMapper()),
+                new SimpleMeterRegistry());
+
+        // When & Then
+        StepVerifier.create(cachedService.getEventDetails(10L, 1L).then(cachedService.getEventDetails(10L, 1L)))
+                .assertNext(event -> assertThat(event.name()).isEqualTo("Match"))
+                .verifyComplete();
+        assertThat(cachedService.cacheStats().staleServed()).isEqualTo(1);
+    }
+
+    private static ClientResponse eventResponse(String etag) {
+        ClientResponse.Builder builder = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(EVENT_JSON.length()));
+        if (etag != null) {
+            builder.header(HttpHeaders.ETAG, etag);
+        }
+        return builder.body(EVENT_JSON).build();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private LeonApiProperties withCache(Duration ttl) {
+        return TestProperties.bind(
+                "leon.api.cache.enabled=true",
+                "leon.api.cache.max-entries=100",
+                "leon.api.cache.ttl=" + ttl);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRetrieve() {
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
     }
 }
@@ -1,8 +1,9 @@
 package com.example.demo.service;
 
 import com.example.demo.config.LeonApiProperties;
+import com.example.demo.config.TestProperties;
+import com.example.demo.diff.OddsDiffEngine;
 import com.example.demo.model.Event;
-import com.example.demo.model.EventsResponse;
 import com.example.demo.model.League;
 import com.example.demo.model.Market;
 import com.example.demo.model.Region;
@@ -13,16 +14,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,17 +44,12 @@ class LeonBetsParserTest {
 
     @BeforeEach
     void setUp() {
-        properties = new LeonApiProperties(
-                new LeonApiProperties.Api(
-                        "https://leon.bet",
-                        Duration.ofSeconds(30),
-                        new LeonApiProperties.Api.Retry(3, Duration.ofSeconds(1)),
-                        new LeonApiProperties.Api.Http("Mozilla/5.0 Test", 16),
-                        new LeonApiProperties.Api.CircuitBreaker(false, 50, 10, Duration.ofSeconds(30), 3)
-                ),
-                new LeonApiProperties.Parser(3, 2, List.of("Soccer", "Tennis"))
-        );
-        parser = new LeonBetsParser(apiService, properties);
+        properties = TestProperties.bind(
+                "leon.api.timeout=30s",
+                "leon.api.retry.max-attempts=3",
+                "leon.api.retry.delay=1s",
+                "leon.parser.target-sports=Soccer,Tennis");
+        parser = new LeonBetsParser(apiService, properties, new OddsDiffEngine(), System.out);
     }
 
     @Test
@@ -61,14 +64,27 @@ class LeonBetsParserTest {
         Event event = new Event(1000L, "Team A vs Team B", System.currentTimeMillis(), List.of(market));
 
         when(apiService.getSports()).thenReturn(Mono.just(List.of(sport)));
-        when(apiService.getEventsByLeague(1L)).thenReturn(Mono.just(new EventsResponse(List.of(event))));
-        when(apiService.getEventDetails(1000L)).thenReturn(Mono.just(event));
+        when(apiService.streamEventsByLeague(1L)).thenReturn(Flux.fromIterable(List.of(event)));
+        when(apiService.getEventDetails(anyLong(), eq(1000L))).thenReturn(Mono.just(event));
 
         // When & Then
         StepVerifier.create(parser.parse())
                 .verifyComplete();
     }
 
+    @Test
+    void parse_oneShotWithRestoredTree_skipsSportsRequest() {
+        League topLeague = new League(1L, "Premier League", true, 1, 10);
+        Sport sport = new Sport(1L, "Football", "Soccer", List.of(new Region(1L, "England", List.of(topLeague))));
+        parser.restoreSportsTree(new SportsTree(List.of(sport), System.currentTimeMillis()));
+        when(apiService.streamEventsByLeague(1L)).thenReturn(Flux.empty());
+
+        StepVerifier.create(parser.parse())
+                .verifyComplete();
+
+        verify(apiService, never()).getSports();
+    }
+
     @Test
     void parse_withNoTopLeagues_completesWithoutProcessingEvents() {
         // Given
@@ -118,8 +134,8 @@ class LeonBetsParserTest {
         Event event = new Event(1000L, "Match", System.currentTimeMillis(), List.of());
 
         when(apiService.getSports()).thenReturn(Mono.just(List.of(sport)));
-        when(apiService.getEventsByLeague(anyLong())).thenReturn(Mono.just(new EventsResponse(List.of(event))));
-        when(apiService.getEventDetails(anyLong())).thenReturn(Mono.just(event));
+        when(apiService.streamEventsByLeague(anyLong())).thenReturn(Flux.fromIterable(List.of(event)));
+        when(apiService.getEventDetails(anyLong(), anyLong())).thenReturn(Mono.just(event));
 
         // When & Then
         StepVerifier.create(parser.parse())
@@ -138,12 +154,12 @@ class LeonBetsParserTest {
         Event event = new Event(1000L, "Team A vs Team B", 1704067200000L, List.of(market));
 
         when(apiService.getSports()).thenReturn(Mono.just(List.of(sport)));
-        when(apiService.getEventsByLeague(1L)).thenReturn(Mono.just(new EventsResponse(List.of(event))));
-        when(apiService.getEventDetails(1000L)).thenReturn(Mono.just(event));
+        when(apiService.streamEventsByLeague(1L)).thenReturn(Flux.fromIterable(List.of(event)));
+        when(apiService.getEventDetails(anyLong(), eq(1000L))).thenReturn(Mono.just(event));
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         LeonBetsParser parserWithCustomOutput = new LeonBetsParser(
-                apiService, properties, new PrintStream(outputStream));
+                apiService, properties, new OddsDiffEngine(), new PrintStream(outputStream));
 
         // When
         parserWithCustomOutput.parse().block();
@@ -157,6 +173,145 @@ class LeonBetsParserTest {
         assertThat(output).contains("1.95");
     }
 
+    @Test
+    void parse_changesOnly_printsOnlyRepricedRunners() {
+        // Given
+        League topLeague = new League(1L, "Premier League", true, 1, 10);
+        Region region = new Region(1L, "England", List.of(topLeague));
+        Sport sport = new Sport(1L, "Football", "Soccer", List.of(region));
+
+        Market before = new Market(10L, "Winner", true, List.of(
+                new Runner(100L, "1", 1.95, true),
+                new Runner(101L, "2", 3.10, true)));
+        Market after = new Market(10L, "Winner", true, List.of(
+                new Runner(100L, "1", 2.05, true),
+                new Runner(101L, "2", 3.10, true)));
+        Event first = new Event(1000L, "Team A vs Team B", 1704067200000L, List.of(before));
+        Event second = new Event(1000L, "Team A vs Team B", 1704067200000L, List.of(after));
+
+        when(apiService.getSports()).thenReturn(Mono.just(List.of(sport)));
+        when(apiService.streamEventsByLeague(1L)).thenReturn(Flux.fromIterable(List.of(first)));
+        when(apiService.getEventDetails(anyLong(), eq(1000L))).thenReturn(Mono.just(first), Mono.just(second));
+
+        LeonApiProperties changesOnly = TestProperties.bind(
+                "leon.parser.target-sports=Soccer,Tennis",
+                "leon.output.changes-only=true");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LeonBetsParser diffParser = new LeonBetsParser(
+                apiService, changesOnly, new OddsDiffEngine(), new PrintStream(outputStream));
+
+        // When
+        diffParser.parse().block();
+        outputStream.reset();
+        diffParser.parse().block();
+
+        // Then
+        String output = outputStream.toString();
+        assertThat(output).contains("1, 1.95 -> 2.05, 100");
+        assertThat(output).doesNotContain("3.1");
+    }
+
+    @Test
+    void parse_crawlsAllTargetSportsConcurrently() {
+        // Given
+        League premierLeague = new League(1L, "Premier League", true, 1, 10);
+        League atp = new League(2L, "ATP", true, 1, 10);
+        Sport soccer = new Sport(1L, "Football", "Soccer", List.of(new Region(1L, "England", List.of(premierLeague))));
+        Sport tennis = new Sport(2L, "Tennis", "Tennis", List.of(new Region(2L, "World", List.of(atp))));
+
+        Event match = new Event(1000L, "Team A vs Team B", 1704067200000L, List.of());
+        Event tennisMatch = new Event(2000L, "Player A vs Player B", 1704067200000L, List.of());
+
+        when(apiService.getSports()).thenReturn(Mono.just(List.of(soccer, tennis)));
+        when(apiService.streamEventsByLeague(1L)).thenReturn(Flux.fromIterable(List.of(match)));
+        when(apiService.streamEventsByLeague(2L)).thenReturn(Flux.fromIterable(List.of(tennisMatch)));
+        when(apiService.getEventDetails(anyLong(), eq(1000L))).thenReturn(Mono.just(match));
+        when(apiService.getEventDetails(anyLong(), eq(2000L))).thenReturn(Mono.just(tennisMatch));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LeonBetsParser parserWithCustomOutput = new LeonBetsParser(
+                apiService, properties, new OddsDiffEngine(), new PrintStream(outputStream));
+
+        // When
+        parserWithCustomOutput.parse().block();
+
+        // Then
+        String output = outputStream.toString();
+        assertThat(output).contains("Team A vs Team B");
+        assertThat(output).contains("Player A vs Player B");
+    }
+
+    @Test
+    void parse_failedLeague_isSkippedWithoutMarkingRefreshed() {
+        // Given
+        League failing = new League(1L, "Failing League", true, 1, 10);
+        League healthy = new League(2L, "Healthy League", true, 2, 10);
+        Sport sport = new Sport(1L, "Football", "Soccer",
+                List.of(new Region(1L, "Region", List.of(failing, healthy))));
+        Event match = new Event(2000L, "Healthy Match", 1704067200000L, List.of());
+        List<Long> refreshed = new ArrayList<>();
+        RefreshSchedule schedule = new RefreshSchedule() {
+            @Override
+            public boolean isDue(Sport s, League league, long nowMillis) {
+                return true;
+            }
+
+            @Override
+            public void onRefreshed(Sport s, League league, List<Event> events, long nowMillis) {
+                refreshed.add(league.id());
+            }
+        };
+
+        when(apiService.getSports()).thenReturn(Mono.just(List.of(sport)));
+        when(apiService.streamEventsByLeague(1L)).thenReturn(Flux.error(new IllegalStateException("boom")));
+        when(apiService.streamEventsByLeague(2L)).thenReturn(Flux.just(match));
+        when(apiService.getEventDetails(anyLong(), eq(2000L))).thenReturn(Mono.just(match));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LeonBetsParser parserWithCustomOutput = new LeonBetsParser(
+                apiService, properties, new OddsDiffEngine(), new PrintStream(outputStream));
+
+        // When
+        StepVerifier.create(parserWithCustomOutput.parse(schedule))
+                .verifyComplete();
+
+        // Then
+        assertThat(refreshed).containsExactly(2L);
+        assertThat(outputStream.toString()).contains("Healthy Match");
+    }
+
+    @Test
+    void parse_outputsEventsInDeterministicOrderRegardlessOfLatency() {
+        // Given
+        League first = new League(1L, "First League", true, 1, 10);
+        League second = new League(2L, "Second League", true, 2, 10);
+        Sport sport = new Sport(1L, "Football", "Soccer", List.of(new Region(1L, "Region", List.of(second, first))));
+
+        Event slow = new Event(1L, "Slow Match", 1704067200000L, List.of());
+        Event fast = new Event(2L, "Fast Match", 1704067200000L, List.of());
+        Event other = new Event(3L, "Other Match", 1704067200000L, List.of());
+
+        when(apiService.getSports()).thenReturn(Mono.just(List.of(sport)));
+        when(apiService.streamEventsByLeague(1L)).thenReturn(Flux.just(slow, fast));
+        when(apiService.streamEventsByLeague(2L)).thenReturn(Flux.just(other));
+        when(apiService.getEventDetails(anyLong(), eq(1L)))
+                .thenReturn(Mono.delay(Duration.ofMillis(100)).thenReturn(slow));
+        when(apiService.getEventDetails(anyLong(), eq(2L))).thenReturn(Mono.just(fast));
+        when(apiService.getEventDetails(anyLong(), eq(3L))).thenReturn(Mono.just(other));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LeonBetsParser parserWithCustomOutput = new LeonBetsParser(
+                apiService, properties, new OddsDiffEngine(), new PrintStream(outputStream));
+
+        // When
+        parserWithCustomOutput.parse().block();
+
+        // Then
+        String output = outputStream.toString();
+        assertThat(output.indexOf("Slow Match")).isLessThan(output.indexOf("Fast Match"));
+        assertThat(output.indexOf("Fast Match")).isLessThan(output.indexOf("Other Match"));
+    }
+
     @Test
     void parse_limitsMatchesPerLeague() {
         // Given
@@ -164,20 +319,24 @@ class LeonBetsParserTest {
         Region region = new Region(1L, "Region", List.of(topLeague));
         Sport sport = new Sport(1L, "Football", "Soccer", List.of(region));
 
+        long now = System.currentTimeMillis();
         List<Event> events = List.of(
-                new Event(1L, "Match 1", System.currentTimeMillis(), List.of()),
-                new Event(2L, "Match 2", System.currentTimeMillis(), List.of()),
-                new Event(3L, "Match 3", System.currentTimeMillis(), List.of()),
-                new Event(4L, "Match 4", System.currentTimeMillis(), List.of())
+                new Event(1L, "Match 1", now + 4 * 3_600_000L, List.of()),
+                new Event(2L, "Match 2", now + 3_600_000L, List.of()),
+                new Event(3L, "Match 3", now + 3 * 3_600_000L, List.of()),
+                new Event(4L, "Match 4", now + 2 * 3_600_000L, List.of())
         );
 
         when(apiService.getSports()).thenReturn(Mono.just(List.of(sport)));
-        when(apiService.getEventsByLeague(1L)).thenReturn(Mono.just(new EventsResponse(events)));
-        when(apiService.getEventDetails(anyLong())).thenReturn(Mono.empty());
+        when(apiService.streamEventsByLeague(1L)).thenReturn(Flux.fromIterable(events));
+        when(apiService.getEventDetails(anyLong(), anyLong())).thenReturn(Mono.empty());
 
-        // When & Then - only 2 events should be processed (matchesPerLeague = 2)
+        // When & Then - only the 2 events nearest kickoff are processed (matchesPerLeague = 2)
         StepVerifier.create(parser.parse())
                 .verifyComplete();
+        verify(apiService).getEventDetails(1L, 2L);
+        verify(apiService).getEventDetails(1L, 4L);
+        verify(apiService, times(2)).getEventDetails(anyLong(), anyLong());
     }
 
     @Test
@@ -204,4 +363,44 @@ class LeonBetsParserTest {
         StepVerifier.create(parser.parse())
                 .verifyComplete();
     }
+
+    @Test
+    void plan_ordersByDeadlineAndKeepsPrintOrderWithinBudget() {
+        // Given
+        Sport sport = new Sport(1L, "Football", "Soccer", List.of());
+        Region region = new Region(1L, "Region", List.of());
+        List<LeonBetsParser.LeagueContext> due = List.of(
+                new LeonBetsParser.LeagueContext(sport, region, new League(1L, "Late", true, 1, 10), 0),
+                new LeonBetsParser.LeagueContext(sport, region, new League(2L, "Never", true, 2, 10), 0),
+                new LeonBetsParser.LeagueContext(sport, region, new League(3L, "Soon", true, 3, 10), 0));
+        Map<Long, Long> deadlines = Map.of(1L, 300L, 2L, Long.MIN_VALUE, 3L, 100L);
+        RefreshSchedule schedule = new RefreshSchedule() {
+            @Override
+            public boolean isDue(Sport s, League league, long now) {
+                return true;
+            }
+
+            @Override
+            public void onRefreshed(Sport s, League league, List<Event> events, long now) {
+                // deadlines are fixed for the test
+            }
+
+            @Override
+            public long dueAt(Sport s, League league, long now) {
+                return deadlines.get(league.id());
+            }
+
+            @Override
+            public int maxLeaguesPerCycle() {
+                return 2;
+            }
+        };
+
+        // When
+        List<LeonBetsParser.LeagueContext> planned = LeonBetsParser.plan(due, schedule, 0);
+
+        // Then
+        assertThat(planned).extracting(ctx -> ctx.league().name()).containsExactly("Never", "Soon");
+        assertThat(planned).extracting(LeonBetsParser.LeagueContext::slot).containsExactly(0, 1);
+    }
 }
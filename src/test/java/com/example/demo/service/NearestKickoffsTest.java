@@ -0,0 +1,38 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Event;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearestKickoffsTest {
+
+    @Test
+    void toList_keepsEarliestKickoffsInKickoffOrder() {
+        NearestKickoffs nearest = new NearestKickoffs(2);
+
+        nearest.offer(event(1L, 5_000L));
+        nearest.offer(event(2L, 1_000L));
+        nearest.offer(event(3L, 9_000L));
+        nearest.offer(event(4L, 3_000L));
+
+        assertThat(nearest.toList()).extracting(Event::id).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void toList_sameKickoff_keepsArrivalOrder() {
+        NearestKickoffs nearest = new NearestKickoffs(2);
+
+        nearest.offer(event(1L, 1_000L));
+        nearest.offer(event(2L, 1_000L));
+        nearest.offer(event(3L, 1_000L));
+
+        assertThat(nearest.toList()).extracting(Event::id).containsExactly(1L, 2L);
+    }
+
+    private static Event event(long id, long kickoff) {
+        return new Event(id, "Match " + id, kickoff, List.of());
+    }
+}
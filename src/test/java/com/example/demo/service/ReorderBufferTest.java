@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReorderBufferTest {
+
+    private final List<String> emitted = new ArrayList<>();
+    private ReorderBuffer<String> buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ReorderBuffer<>(2, emitted::add);
+    }
+
+    @Test
+    void offer_headSlot_emitsImmediately() {
+        buffer.offer(0, "a1");
+
+        assertThat(emitted).containsExactly("a1");
+        assertThat(buffer.buffered()).isZero();
+    }
+
+    @Test
+    void offer_laterSlot_isHeldUntilEarlierSlotsComplete() {
+        buffer.offer(1, "b1");
+        buffer.offer(2, "c1");
+        buffer.complete(2);
+        buffer.complete(1);
+
+        assertThat(emitted).isEmpty();
+        assertThat(buffer.isBacklogged()).isTrue();
+
+        buffer.offer(0, "a1");
+        buffer.complete(0);
+
+        assertThat(emitted).containsExactly("a1", "b1", "c1");
+        assertThat(buffer.buffered()).isZero();
+    }
+
+    @Test
+    void complete_stopsAtIncompleteSlotAndStreamsItsLaterItems() {
+        buffer.offer(1, "b1");
+        buffer.complete(0);
+        buffer.offer(1, "b2");
+        buffer.offer(2, "c1");
+
+        assertThat(emitted).containsExactly("b1", "b2");
+
+        buffer.complete(1);
+
+        assertThat(emitted).containsExactly("b1", "b2", "c1");
+    }
+
+    @Test
+    void offer_fromConsumer_keepsSlotOrder() {
+        List<String> seen = new ArrayList<>();
+        AtomicReference<ReorderBuffer<String>> self = new AtomicReference<>();
+        self.set(new ReorderBuffer<>(2, item -> {
+            seen.add(item);
+            if (item.equals("a1")) {
+                self.get().offer(0, "a2");
+            }
+        }));
+
+        self.get().offer(0, "a1");
+        self.get().offer(0, "a3");
+
+        assertThat(seen).containsExactly("a1", "a2", "a3");
+    }
+
+    @Test
+    void offer_slowConsumer_doesNotHoldLock() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReorderBuffer<String> slow = new ReorderBuffer<>(1, item -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<Void> emitting = CompletableFuture.runAsync(() -> slow.offer(0, "a1"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture.runAsync(() -> slow.offer(1, "b1")).get(5, TimeUnit.SECONDS);
+
+        assertThat(slow.isBacklogged()).isTrue();
+        release.countDown();
+        emitting.get(5, TimeUnit.SECONDS);
+    }
+}
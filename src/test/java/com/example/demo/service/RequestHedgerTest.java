@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestHedgerTest {
+
+    private static final Duration MIN_DELAY = Duration.ofMillis(20);
+
+    @Test
+    void hedge_disabled_subscribesOnce() {
+        RequestHedger hedger = new RequestHedger(new LeonApiProperties.Api.Hedge(false, 0.95, MIN_DELAY, 0.5));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> Mono.fromCallable(() -> "r" + calls.incrementAndGet())).block();
+
+        assertThat(result).isEqualTo("r1");
+        assertThat(hedger.stats().requests()).isZero();
+    }
+
+    @Test
+    void hedge_withoutHistory_doesNotDuplicate() {
+        RequestHedger hedger = hedger(0.5);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> Mono.delay(Duration.ofMillis(100))
+                        .map(tick -> "r" + calls.incrementAndGet()))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("r1");
+        assertThat(hedger.stats().hedges()).isZero();
+    }
+
+    @Test
+    void hedge_slowPrimary_firesDuplicateAndCancelsLoser() {
+        RequestHedger hedger = warmedUp(hedger(0.5));
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        String result = hedger.hedge(() -> calls.incrementAndGet() == 1
+                        ? Mono.<String>never().doOnCancel(() -> primaryCancelled.set(true))
+                        : Mono.just("hedge"))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(primaryCancelled).isTrue();
+        assertThat(hedger.stats().hedges()).isEqualTo(1);
+        assertThat(hedger.stats().wins()).isEqualTo(1);
+        assertThat(hedger.stats().delay()).isEqualTo(MIN_DELAY);
+    }
+
+    @Test
+    void hedge_fastPrimary_sendsNoDuplicate() {
+        RequestHedger hedger = warmedUp(hedger(0.5));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> Mono.fromCallable(() -> "r" + calls.incrementAndGet()))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("r1");
+        assertThat(calls).hasValue(1);
+        assertThat(hedger.stats().hedges()).isZero();
+    }
+
+    @Test
+    void hedge_budgetExhausted_waitsForPrimary() {
+        RequestHedger hedger = warmedUp(hedger(0.0));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> Mono.delay(Duration.ofMillis(100))
+                        .map(tick -> "r" + calls.incrementAndGet()))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("r1");
+        assertThat(calls).hasValue(1);
+        assertThat(hedger.stats().hedges()).isZero();
+    }
+
+    @Test
+    void hedge_emptyPrimary_completesWithoutWaitingForHedge() {
+        RequestHedger hedger = warmedUp(hedger(0.5));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> {
+            calls.incrementAndGet();
+            return Mono.<String>empty();
+        }).block(Duration.ofSeconds(5));
+
+        assertThat(result).isNull();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void measure_excludesTimeQueuedBeforeExchange() {
+        RequestHedger hedger = hedger(0.5);
+
+        for (int i = 0; i < 20; i++) {
+            hedger.hedge(() -> Mono.delay(Duration.ofMillis(50))
+                            .then(hedger.measure(Mono.just("queued"))))
+                    .block(Duration.ofSeconds(5));
+        }
+
+        assertThat(hedger.stats().delay()).isEqualTo(MIN_DELAY);
+    }
+
+    private static RequestHedger hedger(double budget) {
+        return new RequestHedger(new LeonApiProperties.Api.Hedge(true, 0.95, MIN_DELAY, budget));
+    }
+
+    private static RequestHedger warmedUp(RequestHedger hedger) {
+        for (int i = 0; i < 20; i++) {
+            hedger.hedge(() -> hedger.measure(Mono.just("warm-up"))).block();
+        }
+        return hedger;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LeonApiProperties;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScopedResilienceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void protect_failingLeague_opensOnlyItsOwnBreaker() {
+        ScopedResilience resilience = resilience(true, 10);
+        String failing = ScopedResilience.league(1);
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(resilience.protect(failing, Mono.error(new IllegalStateException("boom"))))
+                    .verifyError(IllegalStateException.class);
+        }
+
+        assertThat(resilience.state(failing)).isEqualTo(CircuitBreaker.State.OPEN);
+        StepVerifier.create(resilience.protect(failing, Mono.just("late")))
+                .verifyError(CallNotPermittedException.class);
+        StepVerifier.create(resilience.protect(ScopedResilience.league(2), Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+        StepVerifier.create(resilience.protect("sports", Flux.just("a", "b")))
+                .expectNext("a", "b")
+                .verifyComplete();
+        assertThat(resilience.states())
+                .containsEntry(failing, CircuitBreaker.State.OPEN)
+                .containsEntry(ScopedResilience.league(2), CircuitBreaker.State.CLOSED)
+                .containsEntry("sports", CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void protect_leagueBulkheadFull_rejectsWithoutTrippingBreaker() {
+        ScopedResilience resilience = resilience(true, 10);
+        String league = ScopedResilience.league(7);
+        Sinks.One<String> slow = Sinks.one();
+
+        StepVerifier.create(resilience.protect(league, slow.asMono()))
+                .then(() -> {
+                    for (int i = 0; i < 4; i++) {
+                        StepVerifier.create(resilience.protect(league, Mono.just("second")))
+                                .verifyError(BulkheadFullException.class);
+                    }
+                    StepVerifier.create(resilience.protect(ScopedResilience.details(7), Mono.just("other")))
+                            .expectNext("other")
+                            .verifyComplete();
+                    slow.tryEmitValue("first");
+                })
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(resilience.state(league)).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(resilience.rejections()).isEqualTo(4);
+        StepVerifier.create(resilience.protect(league, Mono.just("again")))
+                .expectNext("again")
+                .verifyComplete();
+    }
+
+    @Test
+    void protect_beyondMaxScopes_evictsLeastRecentlyUsed() {
+        ScopedResilience resilience = resilience(true, 2);
+
+        resilience.protect("sports", Mono.just(1)).block();
+        resilience.protect(ScopedResilience.league(1), Mono.just(1)).block();
+        resilience.protect("sports", Mono.just(1)).block();
+        resilience.protect(ScopedResilience.league(2), Mono.just(1)).block();
+
+        assertThat(resilience.size()).isEqualTo(2);
+        assertThat(resilience.evictions()).isEqualTo(1);
+        assertThat(resilience.states()).containsOnlyKeys("sports", ScopedResilience.league(2));
+    }
+
+    @Test
+    void protect_idleScopes_areEvicted() {
+        ScopedResilience resilience = resilience(true, 10);
+        String league = ScopedResilience.league(3);
+        for (int i = 0; i < 4; i++) {
+            resilience.protect(league, Mono.error(new IllegalStateException("boom")))
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+        }
+        assertThat(resilience.state(league)).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+        resilience.protect("sports", Mono.just(1)).block();
+
+        assertThat(resilience.states()).containsOnlyKeys("sports");
+        assertThat(resilience.state(league)).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void protect_disabled_passesThrough() {
+        ScopedResilience resilience = resilience(false, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            resilience.protect("sports", Mono.fromCallable(calls::incrementAndGet)
+                            .then(Mono.error(new IllegalStateException("boom"))))
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+        }
+
+        assertThat(calls).hasValue(10);
+        assertThat(resilience.size()).isZero();
+    }
+
+    private ScopedResilience resilience(boolean enabled, int maxScopes) {
+        return new ScopedResilience(new LeonApiProperties.Api.CircuitBreaker(enabled, 50, 4, Duration.ofSeconds(30),
+                1, 16, 1, maxScopes, Duration.ofMinutes(10)), new SimpleMeterRegistry(), clock::get);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("test");
+
+    @Test
+    void execute_concurrentCallers_shareOneUpstreamCall() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> call = upstream.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet());
+
+        StepVerifier.create(singleFlight.execute(1L, () -> call)
+                        .zipWith(singleFlight.execute(1L, () -> call)))
+                .then(() -> upstream.tryEmitValue("result"))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).isEqualTo("result");
+                    assertThat(results.getT2()).isEqualTo("result");
+                })
+                .verifyComplete();
+
+        assertThat(subscriptions.get()).isEqualTo(1);
+        assertThat(singleFlight.stats().calls()).isEqualTo(2);
+        assertThat(singleFlight.stats().coalesced()).isEqualTo(1);
+        assertThat(singleFlight.stats().inFlight()).isZero();
+    }
+
+    @Test
+    void execute_differentKeys_doNotCoalesce() {
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.execute(1L, () -> Mono.fromCallable(() -> "a" + subscriptions.incrementAndGet()))
+                        .zipWith(singleFlight.execute(2L, () -> Mono.fromCallable(() -> "b" + subscriptions.incrementAndGet()))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(subscriptions.get()).isEqualTo(2);
+        assertThat(singleFlight.stats().coalesced()).isZero();
+    }
+
+    @Test
+    void execute_afterCompletion_startsNewCall() {
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> Mono.fromCallable(() -> "r" + subscriptions.incrementAndGet())).block();
+        String second = singleFlight.execute(1L, () -> Mono.fromCallable(() -> "r" + subscriptions.incrementAndGet()))
+                .block();
+
+        assertThat(second).isEqualTo("r2");
+    }
+
+    @Test
+    void execute_partialCancellation_keepsUpstreamForRemainingSubscribers() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> call = upstream.asMono().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = singleFlight.execute(1L, () -> call).subscribe();
+        StepVerifier.create(singleFlight.execute(1L, () -> call))
+                .then(first::dispose)
+                .then(() -> assertThat(cancelled).isFalse())
+                .then(() -> upstream.tryEmitValue("result"))
+                .expectNext("result")
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_allSubscribersCancel_cancelsUpstream() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> call = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = singleFlight.execute(1L, () -> call).subscribe();
+        Disposable second = singleFlight.execute(1L, () -> call).subscribe();
+        first.dispose();
+        second.dispose();
+
+        assertThat(cancelled).isTrue();
+        assertThat(singleFlight.stats().inFlight()).isZero();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import com.example.demo.capture.ResponseCapture;
+import com.example.demo.codec.EventStreamDecoder;
+import com.example.demo.codec.NameInterner;
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.config.LeonApiProperties;
+import com.example.demo.config.TestProperties;
+import com.example.demo.config.WebClientConfig;
+import com.example.demo.diff.OddsDiffEngine;
+import com.example.demo.fake.FakeLeonServer;
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Region;
+import com.example.demo.model.Sport;
+import com.example.demo.output.PrintStreamSink;
+import com.example.demo.output.TextEventFormatter;
+import com.example.demo.store.TickStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VirtualThreadParserTest {
+
+    private static final List<String> TARGET_SPORTS = List.of("Soccer", "Tennis", "IceHockey", "Basketball");
+
+    private FakeLeonServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void parse_PrintsSameOutputAsReactorEngine() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), FakeLeonServer.Faults.none());
+        LeonApiProperties properties = properties();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ByteArrayOutputStream reactorOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream virtualOut = new ByteArrayOutputStream();
+
+        WebClient webClient = new WebClientConfig().webClient(properties,
+                new JacksonConfig().objectMapper(new NameInterner()), new SimpleMeterRegistry(),
+                ResponseCapture.disabled());
+        new LeonBetsParser(new LeonApiService(webClient, properties, new EventStreamDecoder(new ObjectMapper()),
+                new SimpleMeterRegistry()), properties, new OddsDiffEngine(), sink(reactorOut),
+                new TextEventFormatter(), TickStore.disabled(), new SimpleMeterRegistry()).parse().block();
+        try (VirtualThreadParser parser = new VirtualThreadParser(
+                new BlockingLeonApiClient(properties, new ObjectMapper(), registry), properties,
+                new OddsDiffEngine(), sink(virtualOut), new TextEventFormatter(), TickStore.disabled(), registry)) {
+            parser.parse().block(Duration.ofSeconds(30));
+        }
+
+        assertThat(registry.counter("leon.parser.events", "stage", "printed").count()).isEqualTo(16);
+        assertThat(registry.timer("leon.api.requests", "endpoint", "event-all", "outcome", "success").count())
+                .isEqualTo(16);
+        assertThat(virtualOut.toString(StandardCharsets.UTF_8))
+                .contains("Football, Region 0 League 0.0")
+                .isEqualTo(reactorOut.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parse_FailingLeague_IsSkippedWithoutAbortingCrawl() {
+        BlockingLeonApiClient client = mock(BlockingLeonApiClient.class);
+        League failing = new League(1L, "Broken League", true, 1, 10);
+        League healthy = new League(2L, "Premier League", true, 2, 10);
+        Event event = new Event(2000L, "Team A - Team B", System.currentTimeMillis() + 3_600_000, List.of());
+        when(client.getSports()).thenReturn(List.of(new Sport(1L, "Football", "Soccer",
+                List.of(new Region(10L, "England", List.of(failing, healthy))))));
+        when(client.eventsByLeague(1L, 2)).thenThrow(new IllegalStateException("malformed league"));
+        when(client.eventsByLeague(2L, 2)).thenReturn(List.of(event));
+        when(client.eventDetails(2000L)).thenReturn(Optional.of(event));
+        LeonApiProperties properties = TestProperties.bind(
+                "leon.parser.matches-per-league=2",
+                "leon.parser.target-sports=Soccer",
+                "leon.parser.engine=virtual_threads");
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (VirtualThreadParser parser = new VirtualThreadParser(client, properties, new OddsDiffEngine(),
+                sink(out), new TextEventFormatter(), TickStore.disabled(), registry)) {
+            parser.parse().block(Duration.ofSeconds(10));
+        }
+
+        assertThat(registry.counter("leon.parser.leagues.failed", "sport", "Soccer").count()).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .contains("Premier League")
+                .doesNotContain("Broken League");
+    }
+
+    @Test
+    void parse_LeagueThrowingError_FailsInsteadOfHanging() {
+        BlockingLeonApiClient client = mock(BlockingLeonApiClient.class);
+        League league = new League(1L, "Premier League", true, 1, 10);
+        when(client.getSports()).thenReturn(List.of(new Sport(1L, "Football", "Soccer",
+                List.of(new Region(10L, "England", List.of(league))))));
+        when(client.eventsByLeague(1L, 2)).thenThrow(new StackOverflowError());
+        LeonApiProperties properties = TestProperties.bind(
+                "leon.parser.target-sports=Soccer",
+                "leon.parser.engine=virtual_threads");
+
+        try (VirtualThreadParser parser = new VirtualThreadParser(client, properties, new OddsDiffEngine(),
+                sink(new ByteArrayOutputStream()), new TextEventFormatter(), TickStore.disabled(),
+                new SimpleMeterRegistry())) {
+            assertThatThrownBy(() -> parser.parse().block(Duration.ofSeconds(10)))
+                    .hasRootCauseInstanceOf(StackOverflowError.class);
+        }
+    }
+
+    @Test
+    void eventsByLeague_KeepsEventsNearestKickoff() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), FakeLeonServer.Faults.none());
+
+        try (BlockingLeonApiClient client = new BlockingLeonApiClient(properties(), new ObjectMapper(),
+                new SimpleMeterRegistry())) {
+            List<Event> events = client.eventsByLeague(server.firstLeagueId(), 2);
+
+            assertThat(events).extracting(Event::id)
+                    .containsExactly(server.firstLeagueId() * 1_000, server.firstLeagueId() * 1_000 + 1);
+        }
+    }
+
+    @Test
+    void eventDetails_RetriesServerErrorsThenReturnsEmpty() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), new FakeLeonServer.Faults(
+                Duration.ZERO, Duration.ZERO, 0, 1, 0, 0, Duration.ZERO));
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        try (BlockingLeonApiClient client = new BlockingLeonApiClient(properties(), new ObjectMapper(), registry)) {
+            assertThat(client.eventDetails(server.firstLeagueId() * 1_000)).isEmpty();
+        }
+
+        assertThat(server.injected("server_error")).isEqualTo(3);
+        assertThat(registry.counter("leon.api.retries", "endpoint", "event-all").count()).isEqualTo(2);
+    }
+
+    @Test
+    void eventsByLeague_ThrowsAfterRetriesInsteadOfReturningEmpty() {
+        server = FakeLeonServer.start(FakeLeonServer.Scale.small(), new FakeLeonServer.Faults(
+                Duration.ZERO, Duration.ZERO, 0, 1, 0, 0, Duration.ZERO));
+
+        try (BlockingLeonApiClient client = new BlockingLeonApiClient(properties(), new ObjectMapper(),
+                new SimpleMeterRegistry())) {
+            assertThatThrownBy(() -> client.eventsByLeague(server.firstLeagueId(), 2))
+                    .isInstanceOf(LeonApiService.ApiException.class);
+        }
+    }
+
+    private static PrintStreamSink sink(ByteArrayOutputStream out) {
+        return new PrintStreamSink(new PrintStream(out, true, StandardCharsets.UTF_8));
+    }
+
+    private LeonApiProperties properties() {
+        return TestProperties.bind(
+                "leon.api.base-url=" + server.baseUrl(),
+                "leon.api.retry.max-attempts=2",
+                "leon.parser.target-sports=" + String.join(",", TARGET_SPORTS),
+                "leon.parser.engine=virtual_threads");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeightedFairSchedulerTest {
+
+    @Test
+    void run_interleavesLanesByWeight() {
+        WeightedFairScheduler<String> scheduler = new WeightedFairScheduler<>();
+        scheduler.add("soccer", 2, List.of("s1", "s2", "s3", "s4"));
+        scheduler.add("tennis", 1, List.of("t1", "t2"));
+        List<String> started = new ArrayList<>();
+
+        StepVerifier.create(scheduler.run(item -> Mono.fromRunnable(() -> started.add(item)), 1))
+                .verifyComplete();
+
+        assertThat(started).containsExactly("s1", "t1", "s2", "s3", "t2", "s4");
+    }
+
+    @Test
+    void run_slowLaneDoesNotStarveOthers() {
+        WeightedFairScheduler<String> scheduler = new WeightedFairScheduler<>();
+        scheduler.add("soccer", 1, List.of("s1", "s2", "s3"));
+        scheduler.add("tennis", 1, List.of("t1"));
+        List<String> started = new ArrayList<>();
+
+        scheduler.run(item -> {
+            started.add(item);
+            return item.startsWith("s") ? Mono.never() : Mono.empty();
+        }, 2).subscribe();
+
+        assertThat(started).containsExactly("s1", "t1", "s2");
+    }
+
+    @Test
+    void run_backlogged_startsItemsInGlobalOrder() {
+        WeightedFairScheduler<String> scheduler = new WeightedFairScheduler<>(
+                Comparator.<String>naturalOrder(), () -> true);
+        scheduler.add("tennis", 1, List.of("b1", "b2"));
+        scheduler.add("soccer", 1, List.of("a1", "a2"));
+        List<String> started = new ArrayList<>();
+
+        StepVerifier.create(scheduler.run(item -> Mono.fromRunnable(() -> started.add(item)), 2))
+                .verifyComplete();
+
+        assertThat(started).containsExactly("a1", "a2", "b1", "b2");
+    }
+
+    @Test
+    void run_switchingOrderMidRun_neverStartsItemTwice() {
+        AtomicBoolean backlogged = new AtomicBoolean();
+        WeightedFairScheduler<String> scheduler = new WeightedFairScheduler<>(
+                Comparator.<String>naturalOrder(), backlogged::get);
+        scheduler.add("soccer", 1, List.of("c", "a", "d", "b"));
+        List<String> started = new ArrayList<>();
+
+        StepVerifier.create(scheduler.run(item -> Mono.fromRunnable(() -> {
+                    started.add(item);
+                    backlogged.set(!backlogged.get());
+                }), 1))
+                .verifyComplete();
+
+        assertThat(started).containsExactly("c", "a", "d", "b");
+    }
+
+    @Test
+    void run_emptyLanes_completesImmediately() {
+        WeightedFairScheduler<String> scheduler = new WeightedFairScheduler<>();
+        scheduler.add("soccer", 1, List.of());
+
+        StepVerifier.create(scheduler.run(Mono::just, 3))
+                .verifyComplete();
+    }
+}
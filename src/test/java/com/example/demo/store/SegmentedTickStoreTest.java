@@ -0,0 +1,153 @@
+package com.example.demo.store;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedTickStoreTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void runnerTicks_ReturnsPricesInTimeRangeInOrder() throws IOException {
+        try (SegmentedTickStore store = newStore(Duration.ofHours(1), Duration.ofDays(7))) {
+            store.append(T0, 1L, 11L, 1.95, true);
+            store.append(T0 + 1000, 1L, 11L, 2.05, true);
+            store.append(T0 + 2000, 1L, 11L, 2.05, false);
+            store.append(T0 + 3000, 1L, 11L, 1.80, true);
+
+            List<Tick> ticks = store.runnerTicks(11L, T0 + 1000, T0 + 2000);
+
+            assertThat(ticks).containsExactly(
+                    new Tick(T0 + 1000, 1L, 11L, 2.05, true),
+                    new Tick(T0 + 2000, 1L, 11L, 2.05, false));
+        }
+    }
+
+    @Test
+    void eventTicks_CollectsAllRunnersOfEvent() throws IOException {
+        try (SegmentedTickStore store = newStore(Duration.ofHours(1), Duration.ofDays(7))) {
+            store.append(event(1L, 1.95, 3.4), T0);
+            store.append(event(2L, 1.50, 2.6), T0);
+            store.append(event(1L, 2.00, 3.3), T0 + 5000);
+
+            List<Tick> ticks = store.eventTicks(1L, T0, T0 + 5000);
+
+            assertThat(ticks).hasSize(4);
+            assertThat(ticks).allMatch(tick -> tick.eventId() == 1L);
+            assertThat(ticks).extracting(Tick::price).containsExactlyInAnyOrder(1.95, 3.4, 2.00, 3.3);
+            assertThat(ticks.get(3).timestamp()).isEqualTo(T0 + 5000);
+        }
+    }
+
+    @Test
+    void append_CompressesUnchangedPrices() throws IOException {
+        try (SegmentedTickStore store = newStore(Duration.ofHours(1), Duration.ofDays(7))) {
+            store.append(T0, 1L, 1_970_327_764_252_977L, 2.19, true);
+            long firstRecordBytes = store.stats().bytesUsed();
+
+            for (int i = 1; i <= 1000; i++) {
+                store.append(T0 + i * 1000L, 1L, 1_970_327_764_252_977L, 2.19, true);
+            }
+
+            long perTick = (store.stats().bytesUsed() - firstRecordBytes) / 1000;
+            assertThat(perTick).isLessThanOrEqualTo(6);
+            assertThat(store.runnerTicks(1_970_327_764_252_977L, T0, T0 + 1_000_000)).hasSize(1001);
+        }
+    }
+
+    @Test
+    void append_RollsSegmentsAndQueriesAcrossThem() throws IOException {
+        try (SegmentedTickStore store = newStore(Duration.ofMinutes(1), Duration.ofDays(7))) {
+            for (int i = 0; i < 10; i++) {
+                store.append(T0 + i * 30_000L, 1L, 11L, 1.5 + i * 0.01, true);
+            }
+
+            assertThat(store.stats().segments()).isEqualTo(5);
+            assertThat(store.runnerTicks(11L, T0, T0 + 300_000))
+                    .extracting(Tick::timestamp)
+                    .isSorted()
+                    .hasSize(10);
+        }
+    }
+
+    @Test
+    void append_TruncatesSealedSegmentsToUsedBytes() throws IOException {
+        try (SegmentedTickStore store = newStore(Duration.ofMinutes(1), Duration.ofDays(7))) {
+            for (int i = 0; i < 3; i++) {
+                store.append(T0 + i * 60_000L, 1L, 11L, 1.5 + i * 0.01, true);
+            }
+
+            List<Path> files = segmentFiles().stream().sorted().toList();
+            assertThat(files).hasSize(3);
+            assertThat(Files.size(files.get(0))).isLessThan(SEGMENT_BYTES);
+            assertThat(Files.size(files.get(1))).isLessThan(SEGMENT_BYTES);
+            assertThat(Files.size(files.get(2))).isEqualTo(SEGMENT_BYTES);
+            assertThat(store.runnerTicks(11L, T0, T0 + 120_000))
+                    .extracting(Tick::price)
+                    .containsExactly(1.5, 1.51, 1.52);
+        }
+    }
+
+    @Test
+    void append_DeletesSegmentsOlderThanRetention() throws IOException {
+        try (SegmentedTickStore store = newStore(Duration.ofMinutes(1), Duration.ofMinutes(5))) {
+            for (int i = 0; i < 20; i++) {
+                store.append(T0 + i * 60_000L, 1L, 11L, 1.5, true);
+            }
+
+            assertThat(store.stats().segments()).isLessThanOrEqualTo(7);
+            assertThat(segmentFiles()).hasSize(store.stats().segments());
+            assertThat(store.runnerTicks(11L, T0, T0 + 60_000)).isEmpty();
+        }
+    }
+
+    @Test
+    void reopen_RebuildsIndexFromSegments() throws IOException {
+        try (SegmentedTickStore store = newStore(Duration.ofHours(1), Duration.ofDays(7))) {
+            store.append(event(1L, 1.95, 3.4), T0);
+            store.append(event(1L, 2.05, 3.4), T0 + 1000);
+        }
+
+        try (SegmentedTickStore reopened = newStore(Duration.ofHours(1), Duration.ofDays(7))) {
+            reopened.append(event(1L, 2.10, 3.2), T0 + 2000);
+
+            assertThat(reopened.runnerTicks(11L, T0, T0 + 2000))
+                    .extracting(Tick::price)
+                    .containsExactly(1.95, 2.05, 2.10);
+            assertThat(reopened.stats().segments()).isEqualTo(2);
+        }
+    }
+
+    private SegmentedTickStore newStore(Duration rollInterval, Duration retention) throws IOException {
+        return new SegmentedTickStore(directory, SEGMENT_BYTES, rollInterval, retention);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private Event event(long id, double home, double away) {
+        return new Event(id, "Team A - Team B", T0 + 3_600_000, List.of(
+                new Market(1L, "Winner", true, List.of(
+                        new Runner(id * 10 + 1, "1", home, true),
+                        new Runner(id * 10 + 2, "2", away, true)))));
+    }
+}